@@ -14,8 +14,16 @@ export function useSeatsStream(eventId: string) {
     const client = new SSEClient(url);
 
     client.connect((msg) => {
-      if (msg.event === "SEAT_UPDATE") {
-        const update = msg.data as { seatId: number; status: Seat["status"]; version: number };
+      // 재연결 시 놓친 범위가 너무 크면 서버가 전체 좌석맵을 보냄 → 캐시 교체
+      if (msg.event === "SEAT_SNAPSHOT") {
+        qc.setQueryData<SeatMap>(["seats", eventId], msg.data as SeatMap);
+        return;
+      }
+
+      // 서버가 윈도우(기본 50ms) 단위로 좌석 변경을 모아 배열로 보냄
+      if (msg.event === "SEAT_UPDATES") {
+        const updates = msg.data as { seatId: number; status: Seat["status"]; version: number }[];
+        const byId = new Map(updates.map((u) => [u.seatId, u.status]));
 
         // ✅ SeatMap 타입을 제네릭으로 지정
         qc.setQueryData<SeatMap>(
@@ -24,9 +32,10 @@ export function useSeatsStream(eventId: string) {
             if (!old) return old; // 캐시에 데이터가 없으면 그대로 반환
             return {
               ...old,
-              seats: old.seats.map((s) =>
-                s.id === update.seatId ? { ...s, status: update.status } : s
-              ),
+              seats: old.seats.map((s) => {
+                const status = byId.get(s.id);
+                return status ? { ...s, status } : s;
+              }),
             };
           }
         );
@@ -4,6 +4,7 @@ package ticketing.admin;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ticketing.catalog.service.EventCatalogCache;
 
 @RestController
 @RequestMapping("/admin")
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 public class AdminResetController {
 
     private final AdminResetService resetService;
+    private final EventCatalogCache eventCatalog;
 
     // POST /admin/test-reset?eventId=1
     @PostMapping("/test-reset")
@@ -18,4 +20,11 @@ public class AdminResetController {
         resetService.resetEvent(eventId);
         return ResponseEntity.ok().build();
     }
+
+    // POST /admin/events/cache/invalidate  (이벤트 등록/수정 후 목록 캐시 즉시 폐기)
+    @PostMapping("/events/cache/invalidate")
+    public ResponseEntity<Void> invalidateEvents() {
+        eventCatalog.invalidate();
+        return ResponseEntity.ok().build();
+    }
 }
@@ -2,12 +2,16 @@
 package ticketing.admin;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ticketing.catalog.service.SeatQueryService;
+import ticketing.catalog.service.SeatUpdateService;
+
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -15,12 +19,14 @@ public class AdminResetService {
 
     private final JdbcTemplate jdbc;                // 빠른 일괄 업데이트용
     private final StringRedisTemplate redis;        // Redis 키 삭제
+    private final SeatUpdateService seatUpdateService; // 인스턴스 간 좌석 변경 버스
 
     /**
      * 이벤트 단위 리셋:
      *  - seats.status → 'AVAILABLE'
-     *  - Redis hold 키( seat:hold:{eventId}:* ) 삭제
-     *  - 선택 캐시 키( seats:map:{eventId} ) 삭제
+     *  - Redis 좌석 상태 키( seat:state:sold|held:{eventId}, seat:hold:exp:{eventId} ) 삭제
+     *  - 버스로 RESET 발행 → 모든 catalog 인스턴스가 스냅샷 evict + SSE 재동기화
+     * Redis 삭제 / RESET 은 커밋 후 실행: 커밋 전에 evict 하면 다른 요청이 아직 SOLD 인 DB 로 스냅샷을 다시 채움
      */
     @Transactional
     public void resetEvent(Long eventId) {
@@ -28,20 +34,28 @@ public class AdminResetService {
         //    (스키마: seats(event_id, status))
         jdbc.update("UPDATE seats SET status = 'AVAILABLE' WHERE event_id = ?", eventId);
 
-        // 2) Redis: hold / 캐시 키 삭제
-        deleteByScan("seat:hold:" + eventId + ":*");
-        redis.delete("seats:map:" + eventId); // 좌석맵 캐시를 쓰는 경우
+        // 2) 커밋 후 Redis: 좌석 상태 / hold 키 삭제
+        //    이벤트당 고정 키만 지우므로 패턴 스캔 불필요
+        afterCommit(() -> {
+            redis.delete(List.of(
+                    "seat:state:sold:" + eventId,
+                    "seat:state:held:" + eventId,
+                    SeatQueryService.holdIndexKey(eventId)));
+            seatUpdateService.publishReset(eventId); // SOLD → AVAILABLE 은 delta 로 되돌리지 않으므로 모든 인스턴스가 통째로 재로드
+        });
     }
 
-    /** KEYS 대신 SCAN으로 안전하게 패턴 삭제 */
-    private void deleteByScan(String pattern) throws DataAccessException {
-        var conn = redis.getConnectionFactory().getConnection();
-        var scan = ScanOptions.scanOptions().match(pattern).count(1000).build();
-        try (var cursor = conn.scan(scan)) {
-            while (cursor.hasNext()) {
-                byte[] key = cursor.next();
-                conn.keyCommands().del(key);
-            }
+    // 트랜잭션 밖에서 호출되면 즉시 실행
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
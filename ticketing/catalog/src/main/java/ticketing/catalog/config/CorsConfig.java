@@ -11,6 +11,7 @@ public class CorsConfig implements WebMvcConfigurer {
         registry.addMapping("/ticketing/api/**")
                 .allowedOrigins("http://localhost:5173")
                 .allowedMethods("GET","POST","PUT","DELETE","OPTIONS")
+                .exposedHeaders("ETag", "Seat-Map-Version") // 좌석맵 조건부 요청(If-None-Match)용
                 .allowCredentials(false);
     }
 }
\ No newline at end of file
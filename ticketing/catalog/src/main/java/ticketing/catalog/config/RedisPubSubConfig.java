@@ -0,0 +1,29 @@
+package ticketing.catalog.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import ticketing.catalog.service.SeatUpdateService;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+public class RedisPubSubConfig {
+
+    @Bean
+    public RedisMessageListenerContainer seatUpdateListenerContainer(RedisConnectionFactory cf,
+                                                                     SeatUpdateService seatUpdateService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(cf);
+        // 단일 스레드로 수신 순서대로 처리 (기본 executor 는 메시지마다 새 스레드 → 순서 뒤섞임)
+        container.setTaskExecutor(Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "seat-update-bus");
+            t.setDaemon(true);
+            return t;
+        }));
+        container.addMessageListener(seatUpdateService, new ChannelTopic(SeatUpdateService.CHANNEL));
+        return container;
+    }
+}
@@ -1,16 +0,0 @@
-package ticketing.catalog.config;
-
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
-
-@Configuration
-public class RestTemplateConfig {
-
-    @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        // Micrometer Tracing Interceptor가 자동으로 붙음 → traceparent 헤더 전파됨
-        return builder.build();
-    }
-}
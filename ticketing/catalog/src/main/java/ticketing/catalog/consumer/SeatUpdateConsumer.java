@@ -0,0 +1,48 @@
+package ticketing.catalog.consumer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import ticketing.catalog.dto.SeatUpdateMessage;
+import ticketing.catalog.service.SeatUpdateService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * reservation → seat.updates (key = eventId) 배치 소비.
+ *  - 같은 이벤트의 변경은 한 파티션 → 한 컨슈머 스레드에서 순서대로 처리
+ *  - 그룹 내 한 인스턴스만 받으므로 SeatUpdateService 버스(Redis pub/sub)로 모든 catalog 인스턴스에 전파
+ *  - catalog 재시작 중 변경은 Kafka 에 남아 있다가 재기동 후 이어서 소비
+ *  - 버스 PUBLISH 실패는 그대로 던짐 → 오프셋 커밋 없이 에러 핸들러가 배치 재전달 (중복 반영은 좌석별 버전으로 무시)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatUpdateConsumer {
+
+    private static final TypeReference<List<SeatUpdateMessage>> BATCH = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final SeatUpdateService seatUpdateService;
+
+    // 배치 리스너: spring.kafka.listener.type=batch, 오프셋은 배치 단위 커밋
+    @KafkaListener(topics = "seat.updates", groupId = "catalog-service")
+    public void consume(List<ConsumerRecord<String, String>> records) {
+        List<SeatUpdateMessage> updates = new ArrayList<>();
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                updates.addAll(objectMapper.readValue(record.value(), BATCH));
+            } catch (Exception e) {
+                log.error("[SEAT-UPDATE-CONSUME] invalid record skipped key={} offset={} error={}",
+                        record.key(), record.offset(), e.getMessage());
+            }
+        }
+        seatUpdateService.publish(updates); // 실패 시 예외 → 배치 재전달
+        log.debug("[SEAT-UPDATE-CONSUME] records={} updates={}", records.size(), updates.size());
+    }
+}
@@ -4,13 +4,18 @@ import io.micrometer.observation.annotation.Observed;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import ticketing.catalog.dto.EventSummary;
-import ticketing.catalog.dto.SeatMap;
+import ticketing.catalog.dto.SeatMapDelta;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import ticketing.catalog.repository.EventRepository;
+import ticketing.catalog.service.EventCatalogCache;
+import ticketing.catalog.service.SeatMapSnapshot;
 import ticketing.catalog.service.SeatQueryService;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -18,18 +23,26 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class EventController {
-    private final EventRepository events;
+    private final EventCatalogCache eventCatalog;
     private final SeatQueryService seatQueryService;
 
+    // 컴팩트 좌석맵 (Accept 헤더로 선택)
+    public static final String SEAT_LAYOUT_MEDIA_TYPE = "application/vnd.ticketing.seat-layout+json";
+    public static final String SEAT_STATUS_MEDIA_TYPE = "application/vnd.ticketing.seat-status";
+
     // GET /api/events
+    // 메모리 캐시(EventCatalogCache)에서 응답, ETag/Last-Modified 일치 시 304
     @Observed(name = "catalog.events.list")
     @GetMapping("/events")
-    public List<EventSummary> list() {
+    public ResponseEntity<List<EventSummary>> list() {
         String traceId = MDC.get("traceId");
         log.info("[EVENT-LIST] traceId={}", traceId);
-        return events.findAll().stream()
-                .map(e -> new EventSummary(e.getId(), e.getTitle(), e.getDateTime(), e.getDescription()))
-                .toList();
+        EventCatalogCache.Catalog catalog = eventCatalog.current();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(catalog.listETag())
+                .lastModified(catalog.lastModified())
+                .body(catalog.list());
     }
 
     // GET /api/events/{id}
@@ -38,28 +51,65 @@ public class EventController {
     public ResponseEntity<EventSummary> get(@PathVariable Long id) {
         String traceId = MDC.get("traceId");
         log.info("[EVENT-GET] id={} traceId={}", id, traceId);
-        return events.findById(id)
-                .map(e -> {
-                    log.debug("[EVENT-GET] 조회 성공 id={} traceId={}", id, traceId);
-                    return ResponseEntity.ok(new EventSummary(
-                            e.getId(), e.getTitle(), e.getDateTime(), e.getDescription()));
-                })
-                .orElseGet(() -> {
-                    log.warn("[EVENT-GET] 조회 실패 - Not Found id={} traceId={}", id, traceId);
-                    return ResponseEntity.notFound().build();
-                });
+        EventCatalogCache.Catalog catalog = eventCatalog.current();
+        EventSummary e = catalog.byId().get(id);
+        if (e == null) {
+            log.warn("[EVENT-GET] 조회 실패 - Not Found id={} traceId={}", id, traceId);
+            return ResponseEntity.notFound().build();
+        }
+        log.debug("[EVENT-GET] 조회 성공 id={} traceId={}", id, traceId);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(catalog.eventETags().get(id))
+                .lastModified(catalog.lastModified())
+                .body(e);
     }
 
-    // GET /api/events/{id}/seats
+    // GET /api/events/{id}/seats[?sinceVersion=N]
+    // sinceVersion 이 있으면 그 이후 바뀐 좌석만(SeatMapDelta), 너무 오래된 버전이면 전체 좌석맵(SeatMap)
+    // Accept: application/vnd.ticketing.seat-layout+json → 배치/가격 문서 (불변, 장기 캐시)
+    // Accept: application/vnd.ticketing.seat-status      → 좌석당 2bit 상태 바이너리
+    // 전체 응답은 강한 ETag 포함 → If-None-Match 일치 시 304 (HttpEntityMethodProcessor 가 처리)
+    // 같은 URL 이 Accept 로 표현이 갈리므로 모든 응답에 Vary: Accept (공유 캐시가 immutable 배치 문서를 JSON 요청에 주지 않게)
     @Observed(name = "catalog.events.seats")
     @GetMapping("/events/{id}/seats")
-    public ResponseEntity<SeatMap> seatMap(@PathVariable Long id) {
+    public ResponseEntity<?> seatMap(@PathVariable Long id,
+                                     @RequestParam(required = false) Long sinceVersion,
+                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         String traceId = MDC.get("traceId");
-        log.info("[EVENT-SEATS] eventId={} traceId={}", id, traceId);
-        if (!events.existsById(id)) {
-            log.warn("[EVENT-SEATS] 좌석맵 조회 실패 - 이벤트 없음 eventId={} traceId={}", id, traceId);
-            return ResponseEntity.notFound().build();
+        log.info("[EVENT-SEATS] eventId={} sinceVersion={} traceId={}", id, sinceVersion, traceId);
+        // 없는 이벤트는 캐시로 바로 404 (스냅샷 로드로 DB 까지 가지 않음)
+        if (!eventCatalog.exists(id)) throw new SeatQueryService.EventNotFoundException(id.toString());
+        // 메모리 스냅샷에서 바로 응답 (좌석 없는 이벤트는 EventNotFoundException → 404)
+        SeatMapSnapshot snapshot = seatQueryService.snapshot(id);
+
+        if (accept != null && accept.contains(SEAT_LAYOUT_MEDIA_TYPE)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(SEAT_LAYOUT_MEDIA_TYPE))
+                    .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .eTag(snapshot.layoutETag())
+                    .body(snapshot.layoutDoc());
+        }
+        if (accept != null && accept.contains(SEAT_STATUS_MEDIA_TYPE)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(SEAT_STATUS_MEDIA_TYPE))
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .header("Seat-Map-Version", String.valueOf(snapshot.version()))
+                    .eTag(snapshot.statusETag())
+                    .body(snapshot.statusBytes());
+        }
+
+        if (sinceVersion != null) {
+            SeatMapDelta delta = seatQueryService.getDelta(id, sinceVersion);
+            if (delta != null) return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(delta);
+            log.debug("[EVENT-SEATS] sinceVersion too old, full snapshot eventId={} sinceVersion={}", id, sinceVersion);
         }
-        return ResponseEntity.ok(seatQueryService.getSeats(id));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(snapshot.jsonETag())
+                .body(snapshot.toSeatMap());
     }
-}
\ No newline at end of file
+}
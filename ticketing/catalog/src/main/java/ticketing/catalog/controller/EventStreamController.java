@@ -1,33 +1,91 @@
 package ticketing.catalog.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
-import io.micrometer.observation.annotation.Observed;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
-import ticketing.catalog.entity.Event;
+import ticketing.catalog.service.SeatMapSnapshot;
+import ticketing.catalog.service.SeatQueryService;
+import ticketing.catalog.service.SseDispatcher;
 
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.*;
 
+/**
+ * 좌석 상태 SSE.
+ *  - 좌석 변경은 이벤트별 버퍼에 모았다가 batchWindowMs 마다 한 프레임(SEAT_UPDATES)으로 발행
+ *  - 같은 좌석은 윈도우 안에서 최신 버전 하나로 합침
+ *  - 프레임은 한 번만 직렬화하고, 같은 인코딩 결과를 모든 구독자에게 전송 → 직렬화 비용 O(프레임)
+ *  - 실제 전송은 SseDispatcher (구독자별 bounded 큐, 뒤처진 구독자 제거)
+ *  - 재연결 시 Last-Event-ID 이후 프레임만 ring buffer 에서 재전송,
+ *    범위 밖이거나 구독자 큐 절반 이상이면 전체 좌석맵(SEAT_SNAPSHOT) 1프레임 + 그 뒤 프레임 (재전송이 곧바로 evict 로 이어지지 않게)
+ *  - 한 연결에서 보내는 프레임 id 는 줄어들지 않음 (INIT → SNAPSHOT → 이후 프레임 순)
+ */
 @RestController
 @RequestMapping("/ticketing/api/events")
-@RequiredArgsConstructor
 @Slf4j // ✅ 롬복 로그 어노테이션
 public class EventStreamController {
 
-    private final Map<Long, CopyOnWriteArrayList<SseEmitter>> emittersByEvent = new ConcurrentHashMap<>();
-    private final Map<Long, ConcurrentLinkedDeque<ServerEvent>> historyByEvent = new ConcurrentHashMap<>();
+    // 이벤트별 프레임 히스토리 (고정 크기 ring buffer + 이벤트별 sequence)
+    private final Map<Long, FrameRing> historyByEvent = new ConcurrentHashMap<>();
+    // 이벤트별 전체 좌석맵 프레임 캐시 (재연결 폭주 시 좌석맵 버전당 1회만 직렬화)
+    private final Map<Long, ServerEvent> snapshotFrames = new ConcurrentHashMap<>();
+    // 이벤트별 다음 프레임에 실을 좌석 변경 (seatId → 최신 변경)
+    private final Map<Long, PendingFrame> pendingByEvent = new ConcurrentHashMap<>();
 
-    private static final int HISTORY_LIMIT = 1000;
+    // 프레임 id = "{streamEpoch}-{seq}" — 재시작/다른 인스턴스의 id 는 epoch 불일치 → 스냅샷으로 재동기화
+    private final String streamEpoch = Long.toString(System.currentTimeMillis(), 36);
     private final ObservationRegistry obs;
+    private final ObjectMapper objectMapper;
+    private final SeatQueryService seatQueryService;
+    private final int historySize;
+    private final long batchWindowMs;
 
-    // SSE 전송을 비동기 처리하기 위해 ExecutorService 사용
-    private final ExecutorService sseExecutor = Executors.newCachedThreadPool();
+    // 구독자별 bounded 큐 + 고정 sender 풀
+    private final SseDispatcher sseDispatcher;
+
+    // 윈도우마다 이벤트별 버퍼를 프레임으로 만드는 단일 스레드
+    private final ScheduledExecutorService framer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "sse-framer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public EventStreamController(ObservationRegistry obs,
+                                 ObjectMapper objectMapper,
+                                 SseDispatcher sseDispatcher,
+                                 SeatQueryService seatQueryService,
+                                 @Value("${catalog.sse.history-size:1000}") int historySize,
+                                 @Value("${catalog.sse.batch-window-ms:50}") long batchWindowMs) {
+        this.obs = obs;
+        this.objectMapper = objectMapper;
+        this.sseDispatcher = sseDispatcher;
+        this.seatQueryService = seatQueryService;
+        this.historySize = historySize;
+        this.batchWindowMs = batchWindowMs;
+    }
+
+    @PostConstruct
+    void start() {
+        framer.scheduleWithFixedDelay(this::flushAll, batchWindowMs, batchWindowMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        framer.shutdown();
+    }
 
     // 클라이언트가 SSE 연결을 맺을 때 호출되는 엔드포인트
     @GetMapping(value = "/{eventId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
@@ -36,103 +94,219 @@ public class EventStreamController {
             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
         log.info("[SSE-CONNECT] eventId={} lastEventId={}", eventId, lastEventId);
         SseEmitter emitter = new SseEmitter(0L); // no timeout
-        // 해당 이벤트(eventId)의 emitter 리스트에 추가
-        emittersByEvent.computeIfAbsent(eventId, k -> new CopyOnWriteArrayList<>()).add(emitter);
-
-        // 연결 종료되면 emitter 제거
-        emitter.onCompletion(() -> {
-            emittersByEvent.getOrDefault(eventId, new CopyOnWriteArrayList<>()).remove(emitter);
-            log.info("[SSE-DISCONNECT] eventId={} emitter removed", eventId);
-        });
-
-        // 타임아웃 시 emitter 제거
-        emitter.onTimeout(() -> {
-            emittersByEvent.getOrDefault(eventId, new CopyOnWriteArrayList<>()).remove(emitter);
-            log.warn("[SSE-TIMEOUT] eventId={} emitter removed", eventId);
-        });
-
-        emitter.onError((e) -> {
-            emittersByEvent.getOrDefault(eventId, new CopyOnWriteArrayList<>()).remove(emitter);
-            log.warn("[SSE-ERROR] eventId={} emitter error={}, removed", eventId, e.getMessage());
-        });
+        FrameRing ring = ring(eventId);
+        long lastSeq = lastEventId == null ? -1 : parseSeq(lastEventId);
 
-        try {
-            emitter.send(
-                    SseEmitter.event()
-                            .id("init-" + System.currentTimeMillis()) // 이벤트 고유 ID
-                            .name("INIT")
-                            .data("connected to event " + eventId)
-            );
-
-            // 클라이언트가 Last-Event-ID를 보냈으면, 히스토리에서 놓친 이벤트 재전송
-            if (lastEventId != null) {
-                try {
-                    long lastId = Long.parseLong(lastEventId);
-                    var history = historyByEvent.getOrDefault(eventId, new ConcurrentLinkedDeque<>());
-                    history.stream()
-                            .filter(ev -> ev.id > lastId)
-                            .forEach(ev -> safeSend(emitter, ev, "x"));
-                    log.info("[SSE-RESEND] eventId={} resent events after lastEventId={}", eventId, lastId);
-                } catch (NumberFormatException e) {
-                    log.warn("[SSE-RESEND] invalid lastEventId={} ignored", lastEventId);
+        // 등록 + INIT + 재전송을 ring 잠금 안에서 → 그 사이 발행된 프레임과 순서가 섞이지 않음
+        long base;
+        synchronized (ring) {
+            List<ServerEvent> missed = lastEventId == null ? List.of() : ring.since(lastSeq);
+            if (missed != null && missed.size() < replayLimit()) {
+                // INIT 의 id 는 클라이언트가 이미 받은 위치 → 이어지는 재전송 프레임 id 가 뒤로 가지 않음
+                attach(eventId, emitter, lastEventId == null ? ring.head() : lastSeq, null, missed);
+                if (lastEventId != null) {
+                    log.info("[SSE-RESEND] eventId={} resent={} after lastEventId={}", eventId, missed.size(), lastEventId);
                 }
+                return emitter;
             }
-        } catch (IOException e) {
-            // 전송 실패 시
-            log.error("[SSE-INIT-ERROR] eventId={} error={}", eventId, e.getMessage());
-            emittersByEvent.getOrDefault(eventId, new CopyOnWriteArrayList<>()).remove(emitter);
+            base = ring.head();
         }
 
+        // 너무 뒤처졌거나 다른 인스턴스/재시작 전 id → 전체 좌석맵으로 재동기화
+        // 스냅샷은 DB 로드가 날 수 있으므로 잠금 밖에서 만들고, 그동안 발행된 프레임(base 이후)을 뒤에 붙임
+        ServerEvent snapshot = snapshotFrame(eventId, base);
+        int tail;
+        synchronized (ring) {
+            List<ServerEvent> after = ring.since(base);
+            if (after == null) after = List.of();
+            attach(eventId, emitter, base, snapshot, after);
+            tail = after.size();
+        }
+        log.info("[SSE-RESEND] eventId={} lastEventId={} too old, snapshot sent (+{} frames)", eventId, lastEventId, tail);
         return emitter;
     }
 
-    // 서버에서 좌석 상태 변경을 알릴 때 호출하는 메서드
-    public void publishSeatChange(Long eventId, Long seatId, String status, int version, String traceId) {
+    // 호출 측에서 ring 잠금 보유. 구독자 등록 후 INIT → (SNAPSHOT) → 프레임 순서로 큐에 넣음
+    private void attach(Long eventId, SseEmitter emitter, long initSeq, ServerEvent snapshot, List<ServerEvent> frames) {
+        // 구독자 등록 (종료/타임아웃/에러 시 디스패처가 제거)
+        SseDispatcher.Subscriber sub = sseDispatcher.register(eventId, emitter);
+        sub.offer(SseEmitter.event()
+                .id(frameId(initSeq))
+                .name("INIT")
+                .data("connected to event " + eventId)
+                .build());
+        if (snapshot != null) sub.offer(snapshot.frame());
+        frames.forEach(ev -> sub.offer(ev.frame()));
+    }
+
+    // 재전송 상한: 구독자 큐의 절반 (나머지는 재전송이 비워지는 동안 들어오는 실시간 프레임 몫)
+    private int replayLimit() {
+        return Math.max(1, sseDispatcher.queueSize() / 2);
+    }
+
+    // 서버에서 좌석 상태 변경을 알릴 때 호출하는 메서드 (버퍼에 넣고 즉시 리턴, 전송은 다음 윈도우)
+    public void publishSeatChange(Long eventId, Long seatId, String status, long version, String traceId) {
         Observation.createNotStarted("catalog.sse.publish", obs)
                 .lowCardinalityKeyValue("eventId", eventId.toString())
                 .lowCardinalityKeyValue("seatId", seatId.toString())
                 .lowCardinalityKeyValue("status", status)
                 .lowCardinalityKeyValue("traceId", traceId)
-                .observe(() -> {
-                    long id = System.currentTimeMillis();
-                    ServerEvent ev = new ServerEvent(id, "SEAT_UPDATE", new SeatUpdate(seatId, status, version));
-
-                    // 히스토리에 저장
-                    var history = historyByEvent.computeIfAbsent(eventId, k -> new ConcurrentLinkedDeque<>());
-                    history.addLast(ev);
-                    if (history.size() > HISTORY_LIMIT) {
-                        history.pollFirst(); // 오래된 건 버림
-                    }
-
-                    var emitters = emittersByEvent.getOrDefault(eventId, new CopyOnWriteArrayList<>());
-                    log.info("[SSE-PUBLISH] eventId={} seatId={} status={} version={} emitters={} traceId={}",
-                            eventId, seatId, status, version, emitters.size(), traceId);
-                    // 현재 연결된 모든 구독자에게 이벤트 전송
-                    for (SseEmitter emitter : emitters) {
-                        safeSend(emitter, ev, traceId);
-                    }
-                });
-    }
-
-    private void safeSend(SseEmitter emitter, ServerEvent ev, String traceId) {
-        // 새로운 작업을 스레드 풀에 제출 (즉시 리턴 -> 호출부는 블로킹 안됨)
-        sseExecutor.submit(() -> {
+                .observe(() -> pendingByEvent.computeIfAbsent(eventId, k -> new PendingFrame())
+                        .add(new SeatUpdate(seatId, status, version)));
+    }
+
+    /**
+     * 좌석맵을 다시 읽어 SEAT_SNAPSHOT 을 일반 프레임처럼 발행 (버스 메시지 유실/이벤트 리셋 후 구독자 재동기화).
+     * 스냅샷 로드는 잠금 밖, seq 부여 + 히스토리 추가 + 전송만 잠금 안에서
+     */
+    public void resync(Long eventId, String reason) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(seatQueryService.snapshot(eventId).toSeatMap());
+        } catch (SeatQueryService.EventNotFoundException | JsonProcessingException e) {
+            log.warn("[SSE-RESYNC] snapshot unavailable eventId={} reason={} error={}", eventId, reason, e.getMessage());
+            return;
+        }
+        FrameRing ring = ring(eventId);
+        int subscribers;
+        long seq;
+        synchronized (ring) {
+            seq = ring.head() + 1;
+            Set<DataWithMediaType> frame = SseEmitter.event()
+                    .id(frameId(seq))
+                    .name("SEAT_SNAPSHOT")
+                    .data(json, MediaType.APPLICATION_JSON)
+                    .build();
+            ring.append(new ServerEvent(seq, frame));
+            subscribers = sseDispatcher.broadcast(eventId, frame);
+        }
+        log.info("[SSE-RESYNC] eventId={} reason={} seq={} bytes={} emitters={}",
+                eventId, reason, seq, json.length, subscribers);
+    }
+
+    void flushAll() {
+        for (Map.Entry<Long, PendingFrame> e : pendingByEvent.entrySet()) {
             try {
-                emitter.send(
-                        SseEmitter.event()
-                                .id(String.valueOf(ev.id))
-                                .name(ev.event)
-                                .data(ev.data)
-                );
-            } catch (IOException e) {
-                log.warn("[SSE-SEND-ERROR] emitter already closed, removing. error={} traceId={}", e.getMessage(), traceId);
-                // 전송 실패
-                emitter.completeWithError(e); // <- complete() 대신 completeWithError 로 마무리
-                // emittersByEvent.values().forEach(list -> list.remove(emitter));
+                flush(e.getKey(), e.getValue());
+            } catch (Exception ex) {
+                log.error("[SSE-FRAME-ERROR] eventId={} error={}", e.getKey(), ex.getMessage());
             }
-        });
+        }
     }
 
-    record SeatUpdate(Long seatId, String status, int version) {}
-    record ServerEvent(long id, String event, Object data) {}
+    private void flush(Long eventId, PendingFrame pending) throws JsonProcessingException {
+        List<SeatUpdate> updates = pending.drain();
+        if (updates.isEmpty()) return;
+
+        // 프레임 1회 직렬화 → 모든 구독자가 같은 바이트를 공유
+        byte[] json = objectMapper.writeValueAsBytes(updates);
+        FrameRing ring = ring(eventId);
+        int subscribers;
+        long seq;
+        synchronized (ring) {
+            seq = ring.head() + 1;
+            Set<DataWithMediaType> frame = SseEmitter.event()
+                    .id(frameId(seq))
+                    .name("SEAT_UPDATES")
+                    .data(json, MediaType.APPLICATION_JSON)
+                    .build();
+            ring.append(new ServerEvent(seq, frame));
+            // 현재 연결된 모든 구독자 큐에 같은 프레임 전달 (논블로킹)
+            subscribers = sseDispatcher.broadcast(eventId, frame);
+        }
+        log.info("[SSE-PUBLISH] eventId={} seq={} seats={} bytes={} emitters={}",
+                eventId, seq, updates.size(), json.length, subscribers);
+    }
+
+    private FrameRing ring(Long eventId) {
+        return historyByEvent.computeIfAbsent(eventId, k -> new FrameRing(historySize));
+    }
+
+    private String frameId(long seq) {
+        return streamEpoch + "-" + seq;
+    }
+
+    // "{epoch}-{seq}" → seq, 다른 epoch / 형식 오류면 -1 (→ 스냅샷)
+    private long parseSeq(String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash <= 0 || !lastEventId.substring(0, dash).equals(streamEpoch)) return -1;
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            log.warn("[SSE-RESEND] invalid lastEventId={} ignored", lastEventId);
+            return -1;
+        }
+    }
+
+    // 전체 좌석맵 프레임 (SEAT_SNAPSHOT). 좌석맵 버전이 같으면 캐시된 인코딩 재사용
+    private ServerEvent snapshotFrame(Long eventId, long seq) {
+        try {
+            SeatMapSnapshot snapshot = seatQueryService.snapshot(eventId);
+            ServerEvent cached = snapshotFrames.get(eventId);
+            if (cached != null && cached.seq() == seq && cached.version() == snapshot.version()) return cached;
+
+            ServerEvent ev = new ServerEvent(seq, snapshot.version(), SseEmitter.event()
+                    .id(frameId(seq))
+                    .name("SEAT_SNAPSHOT")
+                    .data(objectMapper.writeValueAsBytes(snapshot.toSeatMap()), MediaType.APPLICATION_JSON)
+                    .build());
+            snapshotFrames.put(eventId, ev);
+            return ev;
+        } catch (SeatQueryService.EventNotFoundException | JsonProcessingException e) {
+            log.warn("[SSE-RESEND] snapshot unavailable eventId={} error={}", eventId, e.getMessage());
+            return null;
+        }
+    }
+
+    // 이벤트 하나의 다음 프레임 버퍼 (seatId → 최신 변경)
+    private static final class PendingFrame {
+        private LinkedHashMap<Long, SeatUpdate> seats = new LinkedHashMap<>();
+
+        synchronized void add(SeatUpdate u) {
+            seats.merge(u.seatId(), u, (a, b) -> b.version() >= a.version() ? b : a);
+        }
+
+        synchronized List<SeatUpdate> drain() {
+            if (seats.isEmpty()) return List.of();
+            List<SeatUpdate> out = new ArrayList<>(seats.values());
+            seats = new LinkedHashMap<>();
+            return out;
+        }
+    }
+
+    /**
+     * 이벤트별 프레임 히스토리: 배열 기반 고정 크기 ring, seq 는 1 부터 빈틈없이 증가.
+     * seq → 슬롯이 seq % capacity 로 바로 계산되므로 재전송 시작 위치 탐색이 O(1).
+     * 호출 측에서 ring 객체로 동기화 (발행/구독 등록 순서 보장)
+     */
+    private static final class FrameRing {
+        private final ServerEvent[] slots;
+        private long head; // 마지막 발행 seq (0 = 아직 없음)
+
+        FrameRing(int capacity) {
+            this.slots = new ServerEvent[capacity];
+        }
+
+        long head() { return head; }
+
+        void append(ServerEvent ev) {
+            slots[(int) (ev.seq() % slots.length)] = ev;
+            head = ev.seq();
+        }
+
+        /** lastSeq 이후 프레임, 보관 범위를 벗어나거나 알 수 없는 seq 면 null */
+        List<ServerEvent> since(long lastSeq) {
+            if (lastSeq < 0 || lastSeq > head || head - lastSeq > slots.length) return null;
+            List<ServerEvent> out = new ArrayList<>((int) (head - lastSeq));
+            for (long s = lastSeq + 1; s <= head; s++) {
+                out.add(slots[(int) (s % slots.length)]);
+            }
+            return out;
+        }
+    }
+
+    record SeatUpdate(Long seatId, String status, long version) {}
+    record ServerEvent(long seq, long version, Set<DataWithMediaType> frame) {
+        ServerEvent(long seq, Set<DataWithMediaType> frame) { this(seq, 0L, frame); }
+    }
 }
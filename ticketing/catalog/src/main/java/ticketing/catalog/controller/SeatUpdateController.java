@@ -7,6 +7,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import ticketing.catalog.dto.SeatUpdateMessage;
+import ticketing.catalog.service.SeatUpdateService;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/ticketing/api/internal") // 내부 호출 전용
@@ -14,25 +18,20 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class SeatUpdateController {
 
-    private final EventStreamController eventStreamController;
+    // 받은 인스턴스에서 바로 반영하지 않고 버스로 발행 → 모든 catalog 인스턴스가 같은 변경을 반영
+    private final SeatUpdateService seatUpdateService;
 
     @Observed(name = "catalog.seat-update")
     @PostMapping("/seat-update")
-    public void seatUpdate(@RequestBody SeatUpdateRequest req) {
-        try {
-            // SSE 이벤트 발행 -> 구독자들에게 push
-            eventStreamController.publishSeatChange(
-                    req.eventId(),
-                    req.seatId(),
-                    req.status(),
-                    req.version(),
-                    req.traceId()
-            );
-        } catch (Exception e) {
-            log.error("[SEAT-UPDATE] SSE push failed, but ignoring. error={}", e.getMessage());
-        }
+    public void seatUpdate(@RequestBody SeatUpdateMessage req) {
+        seatUpdateService.publishOrApplyLocally(List.of(req));
     }
 
-    record SeatUpdateRequest(Long eventId, Long seatId, String status, int version, String traceId) {};
-
+    // reservation CatalogNotifier 가 모아서 보내는 벌크 업데이트 (좌석별로 이미 최신 상태로 합쳐져 있음)
+    @Observed(name = "catalog.seat-update.bulk")
+    @PostMapping("/seat-updates")
+    public void seatUpdates(@RequestBody List<SeatUpdateMessage> reqs) {
+        seatUpdateService.publishOrApplyLocally(reqs);
+        log.debug("[SEAT-UPDATE] bulk size={}", reqs.size());
+    }
 }
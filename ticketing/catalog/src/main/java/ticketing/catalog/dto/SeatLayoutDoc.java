@@ -0,0 +1,4 @@
+package ticketing.catalog.dto;
+
+// 좌석 배치 + 가격 (불변) — 좌석 i 의 상태는 seat-status 바이너리의 i 번째 2bit 와 대응
+public record SeatLayoutDoc(int rows, int cols, long[] ids, int[] r, int[] c, int[] price) {}
@@ -2,4 +2,4 @@ package ticketing.catalog.dto;
 
 import java.util.List;
 
-public record SeatMap(int rows, int cols, List<SeatDto> seats) {}
\ No newline at end of file
+public record SeatMap(int rows, int cols, long version, List<SeatDto> seats) {}
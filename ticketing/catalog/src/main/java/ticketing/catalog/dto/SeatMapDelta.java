@@ -0,0 +1,6 @@
+package ticketing.catalog.dto;
+
+import java.util.List;
+
+// sinceVersion 이후 바뀐 좌석만 (version = 이 응답 기준 최신 버전, 다음 요청의 sinceVersion 으로 사용)
+public record SeatMapDelta(long sinceVersion, long version, List<SeatDto> changes) {}
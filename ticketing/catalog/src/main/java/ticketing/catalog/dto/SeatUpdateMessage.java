@@ -0,0 +1,4 @@
+package ticketing.catalog.dto;
+
+// reservation → catalog 좌석 상태 변경 (version = 이벤트별 단조 증가 버전)
+public record SeatUpdateMessage(Long eventId, Long seatId, String status, long version, String traceId) {}
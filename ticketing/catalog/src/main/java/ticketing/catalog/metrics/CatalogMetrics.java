@@ -0,0 +1,70 @@
+package ticketing.catalog.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Component
+public class CatalogMetrics {
+    private final Counter sseEvicted;
+    private final Counter sseSendFailed;
+    private final AtomicInteger sseQueueDepth = new AtomicInteger();
+    private final AtomicInteger sseSubscribers = new AtomicInteger();
+    private final Timer   sseSendLatency;
+    private final Counter seatMapCoalesced;
+    private final Counter seatMapStaleServed;
+    private final Timer   seatMapLoad;
+    private final Counter seatBusGap;
+
+    public CatalogMetrics(MeterRegistry reg) {
+        // SSE 구독자별 전송 큐
+        sseEvicted    = Counter.builder("catalog_sse_evicted_total")
+                .description("Subscribers evicted for lagging behind")
+                .register(reg);
+        sseSendFailed = Counter.builder("catalog_sse_send_failed_total").register(reg);
+        Gauge.builder("catalog_sse_queue_depth", sseQueueDepth, AtomicInteger::get)
+                .description("Frames queued across all SSE subscribers")
+                .register(reg);
+        Gauge.builder("catalog_sse_subscribers", sseSubscribers, AtomicInteger::get)
+                .register(reg);
+
+        sseSendLatency = Timer.builder("catalog_sse_send_latency_seconds")
+                .description("Per-subscriber SSE frame write latency (seconds)")
+                .publishPercentileHistogram(true)
+                .register(reg);
+
+        // 좌석맵 스냅샷 로드 (single-flight)
+        seatMapCoalesced   = Counter.builder("catalog_seat_map_coalesced_total")
+                .description("Requests that waited on an in-flight seat-map load instead of loading")
+                .register(reg);
+        seatMapStaleServed = Counter.builder("catalog_seat_map_stale_served_total")
+                .description("Requests answered with the previous snapshot while a reload was in flight")
+                .register(reg);
+        seatMapLoad = Timer.builder("catalog_seat_map_load_seconds")
+                .description("Seat-map snapshot load latency from DB + Redis (seconds)")
+                .publishPercentileHistogram(true)
+                .register(reg);
+
+        // 인스턴스 간 좌석 변경 버스 (Redis pub/sub)
+        seatBusGap = Counter.builder("catalog_seat_bus_gap_total")
+                .description("Per-event bus sequence gaps detected (lost pub/sub messages → snapshot resync)")
+                .register(reg);
+    }
+
+    public void incSseEvicted()    { sseEvicted.increment(); }
+    public void incSseSendFailed() { sseSendFailed.increment(); }
+    public void addSseQueueDepth(int delta)  { sseQueueDepth.addAndGet(delta); }
+    public void addSseSubscribers(int delta) { sseSubscribers.addAndGet(delta); }
+    public void recordSseSend(long nanos) { sseSendLatency.record(nanos, TimeUnit.NANOSECONDS); }
+    public void incSeatMapCoalesced()   { seatMapCoalesced.increment(); }
+    public void incSeatMapStaleServed() { seatMapStaleServed.increment(); }
+    public void incSeatBusGap()         { seatBusGap.increment(); }
+
+    public <T> T recordSeatMapLoad(Supplier<T> s) { return seatMapLoad.record(s); }
+}
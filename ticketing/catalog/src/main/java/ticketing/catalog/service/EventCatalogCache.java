@@ -0,0 +1,111 @@
+package ticketing.catalog.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ticketing.catalog.dto.EventSummary;
+import ticketing.catalog.repository.EventRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * 이벤트 메타데이터 메모리 캐시 (목록/단건/존재 여부).
+ *  - 이벤트는 거의 바뀌지 않으므로 전체를 한 번에 읽어 불변 Catalog 로 보관, ttl-ms 가 지나면 다음 조회 때 재로드
+ *  - 재로드는 한 스레드만 (나머지는 직전 Catalog 로 응답, 최초 로드만 대기)
+ *  - ETag 는 내용 CRC → 재로드해도 내용이 같으면 ETag/Last-Modified 유지 (클라이언트 304 유지)
+ *  - 이벤트 변경 시 invalidate() 로 즉시 폐기 (인스턴스 로컬, 다른 인스턴스는 TTL 로 수렴)
+ *    invalidate 는 세대(generation)도 올림 → 그 전에 시작된 재로드 결과(변경 전 DB 를 읽었을 수 있음)는 캐시에 넣지 않음
+ */
+@Service
+@Slf4j
+public class EventCatalogCache {
+
+    private final EventRepository events;
+    private final long ttlMs;
+
+    private volatile Catalog catalog;
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public EventCatalogCache(EventRepository events,
+                             @Value("${catalog.events.ttl-ms:30000}") long ttlMs) {
+        this.events = events;
+        this.ttlMs = ttlMs;
+    }
+
+    public Catalog current() {
+        Catalog c = catalog;
+        if (c != null && System.currentTimeMillis() - c.loadedAt() < ttlMs) return c;
+        // 최초 로드(또는 invalidate 직후)는 대기, 만료 재로드는 락을 잡은 스레드만 → 나머지는 직전 Catalog 로 응답
+        if (c == null) reloadLock.lock();
+        else if (!reloadLock.tryLock()) return c;
+        try {
+            Catalog now = catalog;
+            if (now != null && System.currentTimeMillis() - now.loadedAt() < ttlMs) return now;
+            long gen = generation.get();
+            Catalog loaded = load(now != null ? now : c);
+            // 로드 중 invalidate 됐으면 이 요청에만 쓰고 버림 → 다음 조회가 다시 로드
+            //  (저장 직후 다시 확인: 확인과 저장 사이에 invalidate 가 끼어도 null 쓰기가 저장보다 나중이거나 여기서 되돌림)
+            if (generation.get() == gen) {
+                catalog = loaded;
+                if (generation.get() == gen) return loaded;
+                catalog = null;
+            }
+            log.info("[EVENT-CACHE] discarded load started before invalidate");
+            return loaded;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    public EventSummary get(Long id) {
+        return current().byId().get(id);
+    }
+
+    public boolean exists(Long id) {
+        return current().byId().containsKey(id);
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        catalog = null;
+        log.info("[EVENT-CACHE] invalidated");
+    }
+
+    private Catalog load(Catalog prev) {
+        List<EventSummary> list = events.findAll().stream()
+                .map(e -> new EventSummary(e.getId(), e.getTitle(), e.getDateTime(), e.getDescription()))
+                .toList();
+        Map<Long, EventSummary> byId = new HashMap<>(list.size() * 2);
+        Map<Long, String> etags = new HashMap<>(list.size() * 2);
+        for (EventSummary e : list) {
+            byId.put(e.id(), e);
+            etags.put(e.id(), etag("e", List.of(e)));
+        }
+        String listETag = etag("l", list);
+        // 내용이 같으면 Last-Modified 를 유지해야 If-Modified-Since 가 계속 304
+        Instant lastModified = prev != null && prev.listETag().equals(listETag) ? prev.lastModified() : Instant.now();
+        log.debug("[EVENT-CACHE] loaded events={} etag={}", list.size(), listETag);
+        return new Catalog(list, Map.copyOf(byId), Map.copyOf(etags), listETag, lastModified, System.currentTimeMillis());
+    }
+
+    private static String etag(String prefix, List<EventSummary> list) {
+        CRC32 crc = new CRC32();
+        for (EventSummary e : list) crc.update(e.toString().getBytes(StandardCharsets.UTF_8));
+        return "\"" + prefix + list.size() + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    public record Catalog(List<EventSummary> list,
+                          Map<Long, EventSummary> byId,
+                          Map<Long, String> eventETags,
+                          String listETag,
+                          Instant lastModified,
+                          long loadedAt) {}
+}
@@ -0,0 +1,60 @@
+package ticketing.catalog.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 이벤트별 좌석 변경 로그 (고정 크기 ring buffer).
+ *  - 스냅샷 로드 시점 버전(floor) 이후 반영된 변경만 보관
+ *  - since(v): v 이후 변경을 좌석별 최신 하나로 합쳐 반환, v 가 보관 범위보다 오래되면 null (→ 전체 스냅샷)
+ *  - 여러 reservation pod 가 버전을 예약하므로 도착 순서 ≠ 버전 순서일 수 있음
+ *    → 항목마다 기록 직전 high-water 를 함께 저장해, 클라이언트가 v 를 받은 뒤 늦게 도착한 낮은 버전도 포함
+ *    (중복 포함은 무해: 상태가 절대값이라 멱등)
+ */
+public final class SeatChangeLog {
+
+    private final SeatChange[] ring;
+    private final long[] hwBefore;
+    private int head;  // 다음 기록 위치
+    private int size;
+    private long highWater;
+    private long evictedMaxVersion; // 이 버전보다 오래된 v 는 로그로 재구성 불가
+    private long evictedMaxHw = -1;
+
+    SeatChangeLog(int capacity, long floor) {
+        this.ring = new SeatChange[capacity];
+        this.hwBefore = new long[capacity];
+        this.highWater = floor;
+        this.evictedMaxVersion = floor;
+    }
+
+    synchronized void append(SeatChange c) {
+        if (size == ring.length) {
+            // 가장 오래된 항목이 밀려남
+            evictedMaxVersion = Math.max(evictedMaxVersion, ring[head].version());
+            evictedMaxHw = Math.max(evictedMaxHw, hwBefore[head]);
+        } else {
+            size++;
+        }
+        ring[head] = c;
+        hwBefore[head] = highWater;
+        highWater = Math.max(highWater, c.version());
+        head = (head + 1) % ring.length;
+    }
+
+    synchronized List<SeatChange> since(long version) {
+        if (version < evictedMaxVersion || version <= evictedMaxHw) return null;
+        Map<Long, SeatChange> latest = new LinkedHashMap<>();
+        int start = (head - size + ring.length) % ring.length;
+        for (int i = 0; i < size; i++) {
+            int idx = (start + i) % ring.length;
+            SeatChange c = ring[idx];
+            if (c.version() <= version && hwBefore[idx] < version) continue;
+            latest.merge(c.seatId(), c, (a, b) -> b.version() > a.version() ? b : a);
+        }
+        return List.copyOf(latest.values());
+    }
+
+    public record SeatChange(long seatId, String status, long version) {}
+}
@@ -0,0 +1,183 @@
+package ticketing.catalog.service;
+
+import ticketing.catalog.dto.SeatDto;
+import ticketing.catalog.dto.SeatLayoutDoc;
+import ticketing.catalog.dto.SeatMap;
+import ticketing.catalog.service.SeatChangeLog.SeatChange;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 이벤트 좌석맵 스냅샷 (불변).
+ *  - 좌석 배치(id/row/col/price)는 모든 버전이 공유, 상태 배열만 버전마다 복사 (copy-on-write)
+ *  - 변경(delta)은 apply() 로 새 스냅샷을 만들고 version 을 반영된 최대 버전으로 올림 → 읽기는 락 없이 현재 참조만 사용
+ *  - 좌석별 마지막 반영 버전을 함께 보관 → 늦게/중복 도착한 변경(더 낮은 version)은 무시
+ *  - 변경 로그(SeatChangeLog)는 배치처럼 한 번 로드한 스냅샷의 모든 버전이 공유 → 재로드 시 새 로그로 교체
+ *  - 응답용 SeatMap 은 버전당 한 번만 만들어 재사용
+ *  - 컴팩트 표현: 배치 문서(SeatLayoutDoc, 불변) + 상태 바이너리(좌석당 2bit, MSB-first) 를 각각 강한 ETag 와 함께 제공
+ */
+public final class SeatMapSnapshot {
+
+    static final byte AVAILABLE = 0;
+    static final byte HELD = 1;
+    static final byte SOLD = 2;
+    private static final String[] NAMES = {"AVAILABLE", "HELD", "SOLD"};
+
+    private final long version;
+    private final long loadedAt;
+    private final Layout layout;
+    private final byte[] status;
+    private final long[] seatVersions;
+    private final SeatChangeLog changeLog;
+    private volatile SeatMap view;
+    private volatile byte[] packed;
+    private volatile String statusETag;
+
+    private SeatMapSnapshot(long version, long loadedAt, Layout layout, byte[] status, long[] seatVersions,
+                            SeatChangeLog changeLog) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.layout = layout;
+        this.status = status;
+        this.seatVersions = seatVersions;
+        this.changeLog = changeLog;
+    }
+
+    static SeatMapSnapshot of(long version, int changeLogSize,
+                              long[] ids, int[] rows, int[] cols, int[] prices, byte[] status) {
+        Map<Long, Integer> offsets = new HashMap<>(ids.length * 2);
+        int maxRow = 0, maxCol = 0;
+        for (int i = 0; i < ids.length; i++) {
+            offsets.put(ids[i], i);
+            maxRow = Math.max(maxRow, rows[i]);
+            maxCol = Math.max(maxCol, cols[i]);
+        }
+        long[] seatVersions = new long[ids.length];
+        Arrays.fill(seatVersions, version);
+        SeatLayoutDoc doc = new SeatLayoutDoc(maxRow, maxCol, ids, rows, cols, prices);
+        return new SeatMapSnapshot(version, System.currentTimeMillis(),
+                new Layout(ids, rows, cols, prices, offsets, maxRow, maxCol, doc, layoutETag(doc)), status, seatVersions,
+                new SeatChangeLog(changeLogSize, version));
+    }
+
+    public long version() { return version; }
+
+    public long loadedAt() { return loadedAt; }
+
+    public int size() { return status.length; }
+
+    SeatChangeLog changeLog() { return changeLog; }
+
+    /**
+     * 좌석 상태 변경 묶음을 반영한 새 스냅샷. 실제로 반영된 변경은 변경 로그에도 기록.
+     * 반영된 변경이 없으면 자기 자신 반환.
+     * SOLD 는 최종 상태라 늦게 도착한 HELD/AVAILABLE 로 되돌리지 않음 (리셋은 스냅샷 evict 로 처리)
+     */
+    SeatMapSnapshot apply(List<SeatChange> changes) {
+        byte[] next = null;
+        long[] nextVersions = null;
+        long maxVersion = version;
+        for (SeatChange c : changes) {
+            Integer off = layout.offsets.get(c.seatId());
+            byte code = code(c.status());
+            if (off == null || code < 0) continue;
+            if (c.version() <= (nextVersions != null ? nextVersions : seatVersions)[off]) continue;
+            if (next == null) {
+                next = status.clone();
+                nextVersions = seatVersions.clone();
+            }
+            nextVersions[off] = c.version();
+            maxVersion = Math.max(maxVersion, c.version());
+            if (next[off] == SOLD) continue;
+            next[off] = code;
+            changeLog.append(c);
+        }
+        return next == null ? this : new SeatMapSnapshot(maxVersion, loadedAt, layout, next, nextVersions, changeLog);
+    }
+
+    /** 변경 좌석만 SeatDto 로 변환 (delta 응답용) */
+    List<SeatDto> toSeatDtos(List<SeatChange> changes) {
+        List<SeatDto> seats = new ArrayList<>(changes.size());
+        for (SeatChange c : changes) {
+            Integer off = layout.offsets.get(c.seatId());
+            if (off == null) continue;
+            seats.add(new SeatDto(layout.ids[off], layout.rows[off], layout.cols[off], layout.prices[off], NAMES[status[off]]));
+        }
+        return seats;
+    }
+
+    public SeatLayoutDoc layoutDoc() { return layout.doc; }
+
+    public String layoutETag() { return layout.etag; }
+
+    /** 좌석당 2bit 상태 (0=AVAILABLE, 1=HELD, 2=SOLD), 좌석 순서 = 배치 문서 순서. 버전당 한 번만 인코딩 */
+    public byte[] statusBytes() {
+        byte[] p = packed;
+        if (p == null) {
+            p = new byte[(status.length + 3) / 4];
+            for (int i = 0; i < status.length; i++) {
+                p[i >> 2] |= (byte) (status[i] << (6 - 2 * (i & 3)));
+            }
+            packed = p;
+        }
+        return p;
+    }
+
+    // 버전 + 내용 해시 → 재로드로 내용만 바뀐 경우도 구분
+    public String statusETag() {
+        String e = statusETag;
+        if (e == null) {
+            CRC32 crc = new CRC32();
+            crc.update(status);
+            e = "\"s" + version + "-" + Long.toHexString(crc.getValue()) + "\"";
+            statusETag = e;
+        }
+        return e;
+    }
+
+    public String jsonETag() {
+        return "\"j" + statusETag().substring(2);
+    }
+
+    private static String layoutETag(SeatLayoutDoc doc) {
+        CRC32 crc = new CRC32();
+        ByteBuffer buf = ByteBuffer.allocate(doc.ids().length * 20);
+        for (int i = 0; i < doc.ids().length; i++) {
+            buf.putLong(doc.ids()[i]).putInt(doc.r()[i]).putInt(doc.c()[i]).putInt(doc.price()[i]);
+        }
+        crc.update(buf.array());
+        return "\"l" + doc.ids().length + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    public SeatMap toSeatMap() {
+        SeatMap v = view;
+        if (v == null) {
+            List<SeatDto> seats = new ArrayList<>(status.length);
+            for (int i = 0; i < status.length; i++) {
+                seats.add(new SeatDto(layout.ids[i], layout.rows[i], layout.cols[i], layout.prices[i], NAMES[status[i]]));
+            }
+            v = new SeatMap(layout.maxRow, layout.maxCol, version, List.copyOf(seats));
+            view = v; // 경합 시 중복 생성돼도 내용이 같으므로 무해
+        }
+        return v;
+    }
+
+    static byte code(String status) {
+        if (status == null) return -1;
+        return switch (status) {
+            case "AVAILABLE" -> AVAILABLE;
+            case "HELD" -> HELD;
+            case "SOLD" -> SOLD;
+            default -> -1;
+        };
+    }
+
+    private record Layout(long[] ids, int[] rows, int[] cols, int[] prices, Map<Long, Integer> offsets,
+                          int maxRow, int maxCol, SeatLayoutDoc doc, String etag) {}
+}
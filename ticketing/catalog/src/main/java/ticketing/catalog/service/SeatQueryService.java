@@ -1,77 +1,209 @@
 package ticketing.catalog.service;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate; // ✅ 추가
 import org.springframework.stereotype.Service;
 import ticketing.catalog.entity.Seat;
-import ticketing.catalog.dto.SeatDto;
-import ticketing.catalog.dto.SeatMap;
+import ticketing.catalog.metrics.CatalogMetrics;
 import ticketing.catalog.repository.SeatRepository;
+import ticketing.catalog.dto.SeatMap;
+import ticketing.catalog.dto.SeatMapDelta;
+import ticketing.catalog.service.SeatChangeLog.SeatChange;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * 좌석맵 조회.
+ *  - 이벤트별 메모리 스냅샷(SeatMapSnapshot)을 버전과 함께 보관 → 조회는 DB/Redis 왕복 없이 참조만 반환
+ *  - reservation 이 보내는 좌석 변경은 SeatUpdateController → applyUpdates 로 delta 반영 (전체 무효화 X)
+ *  - version 은 reservation 이 이벤트별로 부여한 단조 증가 버전 → getDelta(sinceVersion) 로 바뀐 좌석만 제공
+ *  - 알림 유실 대비로 max-age 가 지난 스냅샷은 다음 조회 때 DB + hold 인덱스로 재구성
+ *  - 로드는 이벤트당 동시에 1회만 (single-flight): 같은 이벤트의 동시 요청은 진행 중인 로드 결과를 공유,
+ *    만료 직후 stale-serve-ms 이내면 기다리지 않고 직전 스냅샷으로 응답
+ *  - 로드 중 도착한 delta 는 버퍼에 모았다가 새 스냅샷에 다시 반영 (유실 없음, 중복은 좌석별 버전으로 무시)
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class SeatQueryService {
     private final SeatRepository seatRepository;
     private final StringRedisTemplate redis; // ✅ 주입
+    private final CatalogMetrics metrics;
+    private final long maxAgeMs;
+    private final long staleServeMs;
+    private final int changeLogSize;
+    private final Map<Long, SeatMapSnapshot> snapshots = new ConcurrentHashMap<>();
+    // 이벤트별 진행 중인 로드 + 그동안 도착한 delta (해당 eventId 의 snapshots.compute 안에서만 접근)
+    private final Map<Long, CompletableFuture<SeatMapSnapshot>> inflight = new ConcurrentHashMap<>();
+    private final Map<Long, List<SeatChange>> changesDuringLoad = new ConcurrentHashMap<>();
+
+    public SeatQueryService(SeatRepository seatRepository,
+                            StringRedisTemplate redis,
+                            CatalogMetrics metrics,
+                            @Value("${catalog.seat-map.max-age-ms:60000}") long maxAgeMs,
+                            @Value("${catalog.seat-map.stale-serve-ms:2000}") long staleServeMs,
+                            @Value("${catalog.seat-map.change-log-size:4096}") int changeLogSize) {
+        this.seatRepository = seatRepository;
+        this.redis = redis;
+        this.metrics = metrics;
+        this.maxAgeMs = maxAgeMs;
+        this.staleServeMs = staleServeMs;
+        this.changeLogSize = changeLogSize;
+    }
+
+    // seat:hold:exp:{eventId} — member = seatId, score = hold 만료 epoch ms
+    public static String holdIndexKey(long eventId) {
+        return "seat:hold:exp:" + eventId;
+    }
+
+    // reservation SeatStateStore 와 같은 키: 이벤트별 좌석 변경 버전 (INCRBY)
+    public static String versionKey(long eventId) {
+        return "seat:ver:" + eventId;
+    }
 
     public SeatMap getSeats(Long eventId) {
+        return snapshot(eventId).toSeatMap();
+    }
+
+    /**
+     * sinceVersion 이후 바뀐 좌석만 반환. 변경 로그 보관 범위보다 오래된 버전이면 null (→ 전체 좌석맵 응답).
+     * 스냅샷을 먼저 읽고 로그를 읽음 → 응답 version 이하의 변경은 빠짐없이 포함 (중복은 무해)
+     */
+    public SeatMapDelta getDelta(Long eventId, long sinceVersion) {
+        SeatMapSnapshot s = snapshot(eventId);
+        if (sinceVersion > s.version()) return null; // 다른 pod 에서 받은 더 앞선 버전 등 → 전체로 재동기화
+        List<SeatChange> changes = s.changeLog().since(sinceVersion);
+        if (changes == null) return null;
+        return new SeatMapDelta(sinceVersion, s.version(), s.toSeatDtos(changes));
+    }
+
+    public SeatMapSnapshot snapshot(Long eventId) {
+        SeatMapSnapshot s = snapshots.get(eventId);
+        long age = s == null ? Long.MAX_VALUE : System.currentTimeMillis() - s.loadedAt();
+        if (age < maxAgeMs) return s;
+
+        CompletableFuture<SeatMapSnapshot> mine = new CompletableFuture<>();
+        CompletableFuture<SeatMapSnapshot> running = inflight.putIfAbsent(eventId, mine);
+        if (running != null) {
+            // 이미 누가 로드 중: 살짝 지난 스냅샷이면 바로 응답, 아니면 그 결과를 기다려 공유
+            if (age < maxAgeMs + staleServeMs) {
+                metrics.incSeatMapStaleServed();
+                return s;
+            }
+            metrics.incSeatMapCoalesced();
+            return await(running);
+        }
+
+        try {
+            // 앞선 로드가 방금 끝났으면 다시 로드하지 않음
+            SeatMapSnapshot fresh = snapshots.get(eventId);
+            if (fresh != null && System.currentTimeMillis() - fresh.loadedAt() < maxAgeMs) {
+                inflight.remove(eventId, mine);
+                mine.complete(fresh);
+                return fresh;
+            }
+            SeatMapSnapshot loaded = metrics.recordSeatMapLoad(() -> load(eventId));
+            // 설치와 inflight 해제를 compute 안에서 → 이후 delta 는 새 스냅샷에 바로 반영
+            SeatMapSnapshot installed = snapshots.compute(eventId, (k, old) -> {
+                inflight.remove(k);
+                List<SeatChange> during = changesDuringLoad.remove(k);
+                return during == null ? loaded : loaded.apply(during);
+            });
+            mine.complete(installed);
+            return installed;
+        } catch (RuntimeException e) {
+            snapshots.compute(eventId, (k, old) -> {
+                inflight.remove(k);
+                changesDuringLoad.remove(k);
+                return old;
+            });
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static SeatMapSnapshot await(CompletableFuture<SeatMapSnapshot> f) {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    /**
+     * 좌석 변경 delta 반영. 스냅샷이 없고 로드 중도 아니면 무시 (다음 조회 때 최신으로 로드).
+     * compute 로 이벤트 단위 원자적 교체 → 같은 이벤트의 동시 업데이트도 유실 없음
+     */
+    public void applyUpdates(Long eventId, List<SeatChange> changes) {
+        if (changes.isEmpty()) return;
+        SeatMapSnapshot after = snapshots.compute(eventId, (k, s) -> {
+            if (inflight.containsKey(k)) {
+                changesDuringLoad.computeIfAbsent(k, x -> new ArrayList<>()).addAll(changes);
+            }
+            return s == null ? null : s.apply(changes);
+        });
+        if (after != null) {
+            log.debug("[SEAT-SNAPSHOT] delta applied eventId={} changes={} version={}",
+                    eventId, changes.size(), after.version());
+        }
+    }
+
+    public void evict(Long eventId) {
+        snapshots.remove(eventId);
+    }
+
+    private SeatMapSnapshot load(Long eventId) {
         String traceId = MDC.get("traceId");
-        log.info("[SEAT-QUERY] 좌석 조회 시작 eventId={} traceId={}", eventId, traceId);
+        log.info("[SEAT-QUERY] 좌석 스냅샷 로드 시작 eventId={} traceId={}", eventId, traceId);
+
+        // 버전을 DB/Redis 상태보다 먼저 읽음 → 스냅샷은 최소 이 버전까지 반영, 이후 변경은 delta 로 (중복 반영은 좌석별 버전으로 무시)
+        String ver = redis.opsForValue().get(versionKey(eventId));
+        long version = ver == null ? 0 : Long.parseLong(ver);
+
         List<Seat> entities = seatRepository.findByEventIdOrderByRowNoAscColNoAsc(eventId);
         if (entities.isEmpty()) {
             log.warn("[SEAT-QUERY] 조회 실패 - 이벤트 없음 eventId={} traceId={}", eventId, traceId);
             throw new EventNotFoundException(eventId.toString());
         }
 
-        int rows = entities.stream().map(Seat::getRowNo).max(Comparator.naturalOrder()).orElse(0);
-        int cols = entities.stream().map(Seat::getColNo).max(Comparator.naturalOrder()).orElse(0);
-
-        // ✅ Redis에서 hold된 좌석 id 수집
-        // 키 포맷: seat:hold:{eventId}:{seatId}
-        Set<String> keys = Optional.ofNullable(redis.keys("seat:hold:%d:*".formatted(eventId)))
+        // ✅ Redis 에서 살아있는 hold 좌석 수집
+        // reservation 이 hold/extend/release Lua 에서 함께 관리하는 이벤트별 hold 인덱스(ZSET, score=만료 epoch ms)
+        // → KEYS 스캔 없이 ZRANGEBYSCORE 1회, 비용은 해당 이벤트의 hold 수에만 비례
+        Set<String> members = Optional.ofNullable(redis.opsForZSet()
+                        .rangeByScore(holdIndexKey(eventId), System.currentTimeMillis() + 1, Double.POSITIVE_INFINITY))
                 .orElseGet(Set::of);
 
-        Set<Long> heldIds = keys.stream()
-                .map(k -> {
-                    // seat:hold:EV:SEAT → 4 토큰
-                    String[] p = k.split(":");
-                    if (p.length >= 4) {
-                        try { return Long.parseLong(p[3]); } catch (NumberFormatException ignore) {}
-                    }
-                    return null;
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        log.debug("[SEAT-QUERY] Redis held 좌석 수={} traceId={}", heldIds.size(), traceId);
-
-        List<SeatDto> seats = entities.stream()
-                .map(s -> {
-                    String status = s.getStatus().name(); // AVAILABLE/SOLD
-                    // SOLD가 아닌 좌석이 Redis에 잡혀있으면 HELD로 오버레이
-                    if (!"SOLD".equals(status) && heldIds.contains(s.getId())) {
-                        status = "HELD";
-                    }
-                    return new SeatDto(
-                            s.getId(),
-                            s.getRowNo(),
-                            s.getColNo(),
-                            s.getPrice(),
-                            status
-                    );
-                })
-                .toList();
-
-        log.info("[SEAT-QUERY] 좌석 조회 완료 eventId={} totalSeats={} traceId={}",
-                eventId, seats.size(), traceId);
-
-        return new SeatMap(rows, cols, seats);
+        Set<Long> heldIds = new HashSet<>(members.size() * 2);
+        for (String m : members) {
+            try { heldIds.add(Long.parseLong(m)); } catch (NumberFormatException ignore) {}
+        }
+
+        int n = entities.size();
+        long[] ids = new long[n];
+        int[] rows = new int[n];
+        int[] cols = new int[n];
+        int[] prices = new int[n];
+        byte[] status = new byte[n];
+        for (int i = 0; i < n; i++) {
+            Seat s = entities.get(i);
+            ids[i] = s.getId();
+            rows[i] = s.getRowNo();
+            cols[i] = s.getColNo();
+            prices[i] = s.getPrice();
+            // SOLD가 아닌 좌석이 Redis에 잡혀있으면 HELD로 오버레이
+            status[i] = s.getStatus() == Seat.Status.SOLD ? SeatMapSnapshot.SOLD
+                    : heldIds.contains(s.getId()) ? SeatMapSnapshot.HELD
+                    : SeatMapSnapshot.AVAILABLE;
+        }
+
+        log.info("[SEAT-QUERY] 좌석 스냅샷 로드 완료 eventId={} totalSeats={} held={} version={} traceId={}",
+                eventId, n, heldIds.size(), version, traceId);
+        return SeatMapSnapshot.of(version, changeLogSize, ids, rows, cols, prices, status);
     }
 
     public static class EventNotFoundException extends RuntimeException {
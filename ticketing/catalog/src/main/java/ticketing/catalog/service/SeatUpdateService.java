@@ -0,0 +1,160 @@
+package ticketing.catalog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+import ticketing.catalog.controller.EventStreamController;
+import ticketing.catalog.dto.SeatUpdateMessage;
+import ticketing.catalog.metrics.CatalogMetrics;
+import ticketing.catalog.service.SeatChangeLog.SeatChange;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 좌석 변경 인스턴스 간 팬아웃 (Redis pub/sub).
+ *  - 어느 catalog 인스턴스가 받든 이벤트별 메시지로 CHANNEL 에 PUBLISH
+ *  - 모든 인스턴스(자기 자신 포함)가 구독 → 자기 스냅샷에 delta 반영 + 자기 SSE 구독자에게 발행
+ *  - 각 인스턴스의 SSE 히스토리(ring)는 이 스트림으로 각자 구성, 다른 인스턴스로 재연결하면 SEAT_SNAPSHOT 으로 재동기화
+ *  - 메시지 = "{type}|{eventId}|{seq}|{body}", seq 는 이벤트별 버스 순번 (INCR + PUBLISH 를 Lua 1회로 → 순번 순서 = 발행 순서)
+ *    pub/sub 은 fire-and-forget 이므로 구독 측이 이벤트별 seq 건너뜀(유실)을 감지하면 스냅샷 재로드 + SSE 스냅샷으로 재동기화
+ *  - RESET: 리셋(SOLD → AVAILABLE 등 delta 로 되돌릴 수 없는 변경)도 같은 버스로 → 모든 인스턴스가 스냅샷 폐기
+ *  - PUBLISH 실패 시: Kafka 경로는 예외를 올려 배치 오프셋을 커밋하지 않음(재전달),
+ *    재전달 주체가 없는 HTTP 경로만 최소한 로컬 구독자에게 반영
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatUpdateService implements MessageListener {
+
+    public static final String CHANNEL = "catalog:seat-updates";
+    private static final TypeReference<List<SeatUpdateMessage>> BATCH = new TypeReference<>() {};
+    private static final String UPDATES = "U";
+    private static final String RESET = "R";
+
+    // KEYS = seq / ARGV = channel, type, eventId, body → seq
+    private static final DefaultRedisScript<Long> PUBLISH_SCRIPT = new DefaultRedisScript<>("""
+        local seq = redis.call('INCR', KEYS[1])
+        redis.call('PUBLISH', ARGV[1], ARGV[2] .. '|' .. ARGV[3] .. '|' .. seq .. '|' .. ARGV[4])
+        return seq
+    """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final SeatQueryService seatQueryService;
+    private final EventStreamController eventStreamController;
+    private final CatalogMetrics metrics;
+
+    // 이벤트별 마지막으로 받은 버스 seq (리스너는 단일 스레드)
+    private final Map<Long, Long> lastSeq = new ConcurrentHashMap<>();
+
+    public static String busSeqKey(long eventId) {
+        return "catalog:seat-updates:seq:" + eventId;
+    }
+
+    /** 실패 시 예외 그대로 전파 (Kafka 컨슈머 → 배치 재전달) */
+    public void publish(List<SeatUpdateMessage> updates) {
+        if (updates.isEmpty()) return;
+        Map<Long, List<SeatUpdateMessage>> byEvent = new LinkedHashMap<>();
+        for (SeatUpdateMessage u : updates) {
+            byEvent.computeIfAbsent(u.eventId(), k -> new ArrayList<>()).add(u);
+        }
+        for (Map.Entry<Long, List<SeatUpdateMessage>> e : byEvent.entrySet()) {
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(e.getValue());
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("seat update serialization failed", ex);
+            }
+            send(UPDATES, e.getKey(), json);
+        }
+    }
+
+    /** HTTP 경로: 호출자가 재시도하지 않으므로 PUBLISH 실패 시 로컬에만이라도 반영 */
+    public void publishOrApplyLocally(List<SeatUpdateMessage> updates) {
+        if (updates.isEmpty()) return;
+        try {
+            publish(updates);
+        } catch (Exception e) {
+            log.error("[SEAT-UPDATE-BUS] publish failed, applying locally only size={} error={}",
+                    updates.size(), e.getMessage());
+            apply(updates);
+        }
+    }
+
+    /** 이벤트 리셋을 모든 인스턴스에 전파 (각자 스냅샷 폐기 + SSE 재동기화). 실패 시 예외 */
+    public void publishReset(Long eventId) {
+        send(RESET, eventId, "");
+    }
+
+    private void send(String type, Long eventId, String body) {
+        redis.execute(PUBLISH_SCRIPT, List.of(busSeqKey(eventId)),
+                CHANNEL, type, String.valueOf(eventId), body);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String raw = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = raw.split("\\|", 4);
+        if (parts.length < 4) {
+            log.error("[SEAT-UPDATE-BUS] invalid message dropped size={}", raw.length());
+            return;
+        }
+        try {
+            Long eventId = Long.valueOf(parts[1]);
+            long seq = Long.parseLong(parts[2]);
+            Long prev = lastSeq.put(eventId, seq);
+            boolean gap = prev != null && seq > prev + 1;
+
+            if (RESET.equals(parts[0])) {
+                resync(eventId, "reset");
+                return;
+            }
+            apply(objectMapper.readValue(parts[3], BATCH));
+            if (gap) {
+                // 건너뛴 메시지의 변경은 스냅샷에 없음 → 재로드 후 SSE 구독자에게 전체 좌석맵
+                metrics.incSeatBusGap();
+                log.warn("[SEAT-UPDATE-BUS] gap detected eventId={} expectedSeq={} receivedSeq={}", eventId, prev + 1, seq);
+                resync(eventId, "gap");
+            }
+        } catch (Exception e) {
+            log.error("[SEAT-UPDATE-BUS] invalid message dropped error={}", e.getMessage());
+        }
+    }
+
+    private void resync(Long eventId, String reason) {
+        seatQueryService.evict(eventId);
+        eventStreamController.resync(eventId, reason);
+    }
+
+    // 이벤트별로 묶어서 스냅샷에 delta 1회 반영 후 SSE 발행
+    void apply(List<SeatUpdateMessage> updates) {
+        Map<Long, List<SeatChange>> byEvent = new LinkedHashMap<>();
+        for (SeatUpdateMessage u : updates) {
+            byEvent.computeIfAbsent(u.eventId(), k -> new ArrayList<>())
+                    .add(new SeatChange(u.seatId(), u.status(), u.version()));
+        }
+        byEvent.forEach(seatQueryService::applyUpdates);
+
+        for (SeatUpdateMessage u : updates) {
+            try {
+                // SSE 이벤트 발행 -> 구독자들에게 push
+                eventStreamController.publishSeatChange(u.eventId(), u.seatId(), u.status(), u.version(), u.traceId());
+            } catch (Exception e) {
+                log.error("[SEAT-UPDATE] SSE push failed, but ignoring. error={}", e.getMessage());
+            }
+        }
+        log.debug("[SEAT-UPDATE] applied size={} events={}", updates.size(), byEvent.size());
+    }
+}
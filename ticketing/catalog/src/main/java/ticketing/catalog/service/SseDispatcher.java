@@ -0,0 +1,163 @@
+package ticketing.catalog.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ticketing.catalog.metrics.CatalogMetrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SSE 구독자별 전송 디스패처.
+ *  - 구독자마다 최대 queueSize 프레임의 큐 → 고정 크기 sender 풀이 구독자 단위로 순서대로 비움 (single-writer)
+ *  - 큐가 가득 찬 구독자(queueSize 프레임 이상 뒤처짐)나 전송 실패한 구독자는 즉시 제거 → 클라이언트는 재연결 + Last-Event-ID 로 복구
+ *  - 연결 종료/타임아웃/에러 콜백에서도 구독자 목록에서 제거 (emitter 누수 방지)
+ */
+@Component
+@Slf4j
+public class SseDispatcher {
+
+    private final Map<Long, CopyOnWriteArrayList<Subscriber>> subscribersByEvent = new ConcurrentHashMap<>();
+    private final CatalogMetrics metrics;
+    private final int queueSize;
+    private final ExecutorService senders;
+
+    public SseDispatcher(CatalogMetrics metrics,
+                         @Value("${catalog.sse.subscriber-queue-size:64}") int queueSize,
+                         @Value("${catalog.sse.sender-threads:4}") int senderThreads) {
+        this.metrics = metrics;
+        this.queueSize = queueSize;
+        AtomicInteger seq = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread t = new Thread(r, "sse-sender-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        senders.shutdown();
+    }
+
+    public int queueSize() {
+        return queueSize;
+    }
+
+    public Subscriber register(Long eventId, SseEmitter emitter) {
+        Subscriber sub = new Subscriber(eventId, emitter);
+        subscribersByEvent.computeIfAbsent(eventId, k -> new CopyOnWriteArrayList<>()).add(sub);
+        metrics.addSseSubscribers(1);
+
+        emitter.onCompletion(() -> remove(sub, "completed"));
+        emitter.onTimeout(() -> remove(sub, "timeout"));
+        emitter.onError(e -> remove(sub, "error " + e.getMessage()));
+        return sub;
+    }
+
+    /** 이벤트 구독자 전원에게 같은 (미리 인코딩된) 프레임 전달 */
+    public int broadcast(Long eventId, Set<DataWithMediaType> frame) {
+        List<Subscriber> subs = subscribersByEvent.get(eventId);
+        if (subs == null) return 0;
+        for (Subscriber sub : subs) {
+            sub.offer(frame);
+        }
+        return subs.size();
+    }
+
+    private void remove(Subscriber sub, String reason) {
+        if (!sub.closed.compareAndSet(false, true)) return;
+        metrics.addSseQueueDepth(-sub.clear());
+        metrics.addSseSubscribers(-1);
+        subscribersByEvent.computeIfPresent(sub.eventId, (k, list) -> {
+            list.remove(sub);
+            return list.isEmpty() ? null : list;
+        });
+        log.info("[SSE-DISCONNECT] eventId={} emitter removed reason={}", sub.eventId, reason);
+    }
+
+    // 뒤처진 구독자 강제 종료
+    private void evict(Subscriber sub, String reason) {
+        metrics.incSseEvicted();
+        log.warn("[SSE-EVICT] eventId={} reason={}", sub.eventId, reason);
+        remove(sub, reason);
+        try {
+            sub.emitter.complete();
+        } catch (Exception ignore) {}
+    }
+
+    public final class Subscriber {
+        private final Long eventId;
+        private final SseEmitter emitter;
+        private final ConcurrentLinkedQueue<Set<DataWithMediaType>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(Long eventId, SseEmitter emitter) {
+            this.eventId = eventId;
+            this.emitter = emitter;
+        }
+
+        /** 논블로킹: 큐에 넣고 drain 이 없으면 sender 풀에 예약 */
+        public void offer(Set<DataWithMediaType> frame) {
+            if (closed.get()) return;
+            if (size.incrementAndGet() > queueSize) {
+                size.decrementAndGet();
+                evict(this, "lagging " + queueSize + " frames");
+                return;
+            }
+            queue.add(frame);
+            metrics.addSseQueueDepth(1);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        // 한 번에 한 스레드만 실행 → 같은 emitter 로의 전송 순서 보장
+        private void drain() {
+            Set<DataWithMediaType> frame;
+            while (!closed.get() && (frame = queue.poll()) != null) {
+                size.decrementAndGet();
+                metrics.addSseQueueDepth(-1);
+                long started = System.nanoTime();
+                try {
+                    emitter.send(frame);
+                    metrics.recordSseSend(System.nanoTime() - started);
+                } catch (Exception e) {
+                    metrics.incSseSendFailed();
+                    log.warn("[SSE-SEND-ERROR] emitter already closed, removing. eventId={} error={}", eventId, e.getMessage());
+                    remove(this, "send failed");
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+            scheduled.set(false);
+            // drain 종료와 offer 사이 경합 → 남은 프레임이 있으면 다시 예약
+            if (!closed.get() && !queue.isEmpty()) schedule();
+        }
+
+        private int clear() {
+            int n = 0;
+            while (queue.poll() != null) n++;
+            size.addAndGet(-n);
+            return n;
+        }
+    }
+}
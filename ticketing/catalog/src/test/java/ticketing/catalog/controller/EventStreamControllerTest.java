@@ -0,0 +1,208 @@
+package ticketing.catalog.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import ticketing.catalog.dto.SeatMap;
+import ticketing.catalog.service.SeatMapSnapshot;
+import ticketing.catalog.service.SeatQueryService;
+import ticketing.catalog.service.SseDispatcher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * SSE 재연결: Last-Event-ID 이후 프레임 재전송 / 범위 밖·과다·다른 epoch 면 SEAT_SNAPSHOT 으로 대체.
+ * 구독자에게 넣은 프레임 순서(offer)로 검증 — 한 연결의 프레임 id 는 줄어들지 않아야 함
+ */
+class EventStreamControllerTest {
+
+    private static final long EVENT_ID = 1L;
+    private static final int HISTORY_SIZE = 16;
+    private static final int QUEUE_SIZE = 8; // 재전송 상한 = 4
+
+    private static final Pattern ID = Pattern.compile("id:(\\S+)");
+    private static final Pattern NAME = Pattern.compile("event:(\\S+)");
+
+    private final SseDispatcher dispatcher = mock(SseDispatcher.class);
+    private final SseDispatcher.Subscriber subscriber = mock(SseDispatcher.Subscriber.class);
+    private final SeatQueryService seatQueryService = mock(SeatQueryService.class);
+    private final SeatMapSnapshot snapshot = mock(SeatMapSnapshot.class);
+    private EventStreamController controller;
+
+    @BeforeEach
+    void setUp() {
+        when(dispatcher.queueSize()).thenReturn(QUEUE_SIZE);
+        when(dispatcher.register(eq(EVENT_ID), any())).thenReturn(subscriber);
+        when(snapshot.version()).thenReturn(7L);
+        when(snapshot.toSeatMap()).thenReturn(new SeatMap(1, 1, 7L, List.of()));
+        when(seatQueryService.snapshot(EVENT_ID)).thenReturn(snapshot);
+        controller = new EventStreamController(ObservationRegistry.NOOP, new ObjectMapper(), dispatcher,
+                seatQueryService, HISTORY_SIZE, 50);
+    }
+
+    // 좌석 변경 1건 = SEAT_UPDATES 프레임 1개 (framer 스레드 대신 직접 flush)
+    private void publishFrames(int n) {
+        for (int i = 0; i < n; i++) {
+            controller.publishSeatChange(EVENT_ID, 100L + i, "HELD", i + 1, "trace");
+            controller.flushAll();
+        }
+    }
+
+    private String epoch() {
+        controller.streamSeats(EVENT_ID, null);
+        List<Frame> init = offered();
+        String id = init.get(init.size() - 1).id();
+        clearInvocations(subscriber);
+        return id.substring(0, id.lastIndexOf('-'));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Frame> offered() {
+        ArgumentCaptor<Set<DataWithMediaType>> captor = ArgumentCaptor.forClass(Set.class);
+        verify(subscriber, atLeastOnce()).offer(captor.capture());
+        return captor.getAllValues().stream().map(Frame::of).toList();
+    }
+
+    private static List<Long> seqs(List<Frame> frames) {
+        return frames.stream().map(f -> Long.parseLong(f.id().substring(f.id().lastIndexOf('-') + 1))).toList();
+    }
+
+    @Test
+    void 첫_연결은_INIT_만_보내고_id_는_현재_head() {
+        publishFrames(3);
+
+        controller.streamSeats(EVENT_ID, null);
+
+        List<Frame> frames = offered();
+        assertThat(frames).extracting(Frame::name).containsExactly("INIT");
+        assertThat(seqs(frames)).containsExactly(3L);
+        verify(seatQueryService, never()).snapshot(anyLong());
+    }
+
+    @Test
+    void Last_Event_ID_이후_프레임만_순서대로_재전송() {
+        String epoch = epoch();
+        publishFrames(5);
+
+        controller.streamSeats(EVENT_ID, epoch + "-3");
+
+        List<Frame> frames = offered();
+        assertThat(frames).extracting(Frame::name).containsExactly("INIT", "SEAT_UPDATES", "SEAT_UPDATES");
+        assertThat(seqs(frames)).containsExactly(3L, 4L, 5L);
+        verify(seatQueryService, never()).snapshot(anyLong());
+    }
+
+    @Test
+    void 놓친_프레임이_큐_절반_이상이면_재전송_대신_스냅샷() {
+        String epoch = epoch();
+        publishFrames(6);
+
+        controller.streamSeats(EVENT_ID, epoch + "-1"); // 5개 놓침 ≥ 재전송 상한 4
+
+        List<Frame> frames = offered();
+        assertThat(frames).extracting(Frame::name).containsExactly("INIT", "SEAT_SNAPSHOT");
+        assertThat(seqs(frames)).containsExactly(6L, 6L);
+    }
+
+    @Test
+    void ring_범위를_벗어난_id_면_스냅샷() {
+        String epoch = epoch();
+        publishFrames(HISTORY_SIZE + 2);
+
+        controller.streamSeats(EVENT_ID, epoch + "-1");
+
+        assertThat(offered()).extracting(Frame::name).containsExactly("INIT", "SEAT_SNAPSHOT");
+    }
+
+    @Test
+    void 다른_인스턴스나_재시작_전_id_면_스냅샷() {
+        publishFrames(2);
+
+        controller.streamSeats(EVENT_ID, "otherepoch-2");
+
+        List<Frame> frames = offered();
+        assertThat(frames).extracting(Frame::name).containsExactly("INIT", "SEAT_SNAPSHOT");
+        assertThat(seqs(frames)).containsExactly(2L, 2L);
+    }
+
+    @Test
+    void 스냅샷을_만드는_동안_발행된_프레임은_스냅샷_뒤에_이어서_전송() {
+        String epoch = epoch();
+        publishFrames(6);
+        // 스냅샷 로드(잠금 밖) 중에 다른 스레드가 프레임 7 을 발행한 상황
+        when(seatQueryService.snapshot(EVENT_ID)).thenAnswer(inv -> {
+            publishFrames(1);
+            return snapshot;
+        });
+
+        controller.streamSeats(EVENT_ID, epoch + "-1");
+
+        List<Frame> frames = offered();
+        assertThat(frames).extracting(Frame::name).containsExactly("INIT", "SEAT_SNAPSHOT", "SEAT_UPDATES");
+        assertThat(seqs(frames)).containsExactly(6L, 6L, 7L);
+    }
+
+    @Test
+    void 스냅샷을_못_만들면_INIT_과_이후_프레임만() {
+        String epoch = epoch();
+        publishFrames(6);
+        when(seatQueryService.snapshot(EVENT_ID)).thenThrow(new SeatQueryService.EventNotFoundException("1"));
+
+        controller.streamSeats(EVENT_ID, epoch + "-1");
+
+        assertThat(offered()).extracting(Frame::name).containsExactly("INIT");
+    }
+
+    @Test
+    void resync_스냅샷은_다음_seq_로_발행되고_재연결_시_재전송_대상() {
+        String epoch = epoch();
+        publishFrames(2);
+
+        controller.resync(EVENT_ID, "gap");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Set<DataWithMediaType>> broadcast = ArgumentCaptor.forClass(Set.class);
+        verify(dispatcher, atLeastOnce()).broadcast(eq(EVENT_ID), broadcast.capture());
+        Frame last = Frame.of(broadcast.getValue());
+        assertThat(last.name()).isEqualTo("SEAT_SNAPSHOT");
+        assertThat(last.id()).isEqualTo(epoch + "-3");
+
+        controller.streamSeats(EVENT_ID, epoch + "-2");
+
+        List<Frame> frames = offered();
+        assertThat(frames).extracting(Frame::name).containsExactly("INIT", "SEAT_SNAPSHOT");
+        assertThat(seqs(frames)).containsExactly(2L, 3L);
+    }
+
+    // SseEmitter 가 만든 프레임의 id / event 이름
+    private record Frame(String id, String name) {
+        static Frame of(Set<DataWithMediaType> items) {
+            StringBuilder sb = new StringBuilder();
+            for (DataWithMediaType d : items) {
+                Object data = d.getData();
+                sb.append(data instanceof byte[] b ? new String(b, StandardCharsets.UTF_8) : String.valueOf(data));
+            }
+            Matcher id = ID.matcher(sb);
+            Matcher name = NAME.matcher(sb);
+            return new Frame(id.find() ? id.group(1) : null, name.find() ? name.group(1) : null);
+        }
+    }
+}
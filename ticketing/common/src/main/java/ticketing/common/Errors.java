@@ -3,4 +3,5 @@ public interface Errors {
     String RESERVATION_CONFLICT = "RESERVATION_CONFLICT";
     String RESERVATION_EXPIRED  = "RESERVATION_EXPIRED";
     String VALIDATION_FAILED    = "VALIDATION_FAILED";
+    String QUEUE_NOT_ADMITTED   = "QUEUE_NOT_ADMITTED";
 }
@@ -0,0 +1,85 @@
+package ticketing.common.http;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 서비스 간 HTTP 클라이언트 설정 (ticketing.http.*).
+ * targets 키는 요청 URI 의 host (예: payment, catalog-api), 지정하지 않은 값은 defaults 를 따름
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ticketing.http")
+public class HttpClientProperties {
+
+    private int maxTotal = 200;         // 전체 커넥션 풀 크기
+    private int maxPerRoute = 50;       // host:port 당 커넥션 상한
+    private long keepAliveMs = 30000;   // 서버가 Keep-Alive 를 안 주면 이 시간만큼 재사용
+    private long idleEvictMs = 30000;   // 이 시간 이상 놀고 있는 커넥션 정리
+
+    private Target defaults = Target.builtIn();
+    private Map<String, Target> targets = new HashMap<>();
+
+    public Target resolve(String host) {
+        Target t = targets.get(host);
+        return t == null ? defaults : t.withDefaults(defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Target {
+        // null = defaults 값 사용
+        private Long connectTimeoutMs;
+        private Long readTimeoutMs;
+        private Long poolTimeoutMs;
+        private Integer maxConcurrent;
+        private Integer failureRateThreshold;
+        private Integer minCalls;
+        private Integer windowSize;
+        private Long openMs;
+        private Integer maxRetries;
+        private Long retryBaseMs;
+        private Long retryMaxMs;
+        private Boolean retryNonIdempotent;
+
+        static Target builtIn() {
+            Target t = new Target();
+            t.connectTimeoutMs = 1000L;
+            t.readTimeoutMs = 3000L;
+            t.poolTimeoutMs = 500L;            // 풀에서 커넥션 빌리기 대기 상한
+            t.maxConcurrent = 64;              // bulkhead: 타깃별 동시 요청 상한
+            t.failureRateThreshold = 50;       // circuit: 최근 window 중 실패율(%) 이 이 이상이면 OPEN
+            t.minCalls = 20;                   // 실패율 판단 최소 호출 수
+            t.windowSize = 50;                 // 최근 호출 window 크기
+            t.openMs = 10000L;                 // OPEN 유지 시간 → 이후 HALF_OPEN 에서 1건씩 시험
+            t.maxRetries = 2;
+            t.retryBaseMs = 100L;              // 지수 backoff + full jitter
+            t.retryMaxMs = 1000L;
+            t.retryNonIdempotent = false;      // POST 등은 기본적으로 연결 실패(미전송)만 재시도
+            return t;
+        }
+
+        Target withDefaults(Target d) {
+            Target t = new Target();
+            t.connectTimeoutMs = or(connectTimeoutMs, d.connectTimeoutMs);
+            t.readTimeoutMs = or(readTimeoutMs, d.readTimeoutMs);
+            t.poolTimeoutMs = or(poolTimeoutMs, d.poolTimeoutMs);
+            t.maxConcurrent = or(maxConcurrent, d.maxConcurrent);
+            t.failureRateThreshold = or(failureRateThreshold, d.failureRateThreshold);
+            t.minCalls = or(minCalls, d.minCalls);
+            t.windowSize = or(windowSize, d.windowSize);
+            t.openMs = or(openMs, d.openMs);
+            t.maxRetries = or(maxRetries, d.maxRetries);
+            t.retryBaseMs = or(retryBaseMs, d.retryBaseMs);
+            t.retryMaxMs = or(retryMaxMs, d.retryMaxMs);
+            t.retryNonIdempotent = or(retryNonIdempotent, d.retryNonIdempotent);
+            return t;
+        }
+
+        private static <T> T or(T v, T d) { return v != null ? v : d; }
+    }
+}
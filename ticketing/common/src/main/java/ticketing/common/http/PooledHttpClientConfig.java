@@ -0,0 +1,82 @@
+package ticketing.common.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * 모든 모듈이 공유하는 서비스 간 HTTP 클라이언트.
+ *  - Apache HttpClient 5 커넥션 풀 (keep-alive 재사용, 유휴/만료 커넥션 정리) — 요청마다 새 TCP 연결 없음
+ *  - 타깃(host)별 connect / read / 풀 대기 타임아웃 (ticketing.http.targets.{host}.*)
+ *  - ResilientHttpInterceptor 로 bulkhead / circuit breaker / retry(jitter) + 타깃별 메트릭
+ *  - RestTemplateBuilder 로 생성 → Micrometer Observation(http_client_requests, traceparent 전파) 그대로 유지
+ */
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class PooledHttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager(HttpClientProperties props) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(props.getMaxTotal())
+                .setMaxConnPerRoute(props.getMaxPerRoute())
+                .setConnectionConfigResolver(route -> {
+                    HttpClientProperties.Target t = props.resolve(route.getTargetHost().getHostName());
+                    return ConnectionConfig.custom()
+                            .setConnectTimeout(Timeout.ofMilliseconds(t.getConnectTimeoutMs()))
+                            .setSocketTimeout(Timeout.ofMilliseconds(t.getReadTimeoutMs()))
+                            .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                            .build();
+                })
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient pooledHttpClient(PoolingHttpClientConnectionManager cm, HttpClientProperties props) {
+        return HttpClients.custom()
+                .setConnectionManager(cm)
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(props.getKeepAliveMs()))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(props.getIdleEvictMs()))
+                .disableAutomaticRetries() // 재시도는 ResilientHttpInterceptor 한 곳에서만
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     CloseableHttpClient httpClient,
+                                     PoolingHttpClientConnectionManager cm,
+                                     HttpClientProperties props,
+                                     MeterRegistry registry) {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        // 타깃별 응답/풀 대기 타임아웃 (connect 타임아웃은 커넥션 매니저의 route 별 ConnectionConfig)
+        factory.setHttpContextFactory((method, uri) -> {
+            HttpClientProperties.Target t = props.resolve(uri.getHost());
+            HttpClientContext ctx = HttpClientContext.create();
+            ctx.setRequestConfig(RequestConfig.custom()
+                    .setResponseTimeout(Timeout.ofMilliseconds(t.getReadTimeoutMs()))
+                    .setConnectionRequestTimeout(Timeout.ofMilliseconds(t.getPoolTimeoutMs()))
+                    .build());
+            return ctx;
+        });
+
+        // Micrometer Tracing(Observation)은 RestTemplateBuilder 가 자동으로 붙임 → traceparent 헤더 전파됨
+        return builder
+                .requestFactory(() -> factory)
+                .additionalInterceptors(new ResilientHttpInterceptor(props, cm, registry))
+                .build();
+    }
+}
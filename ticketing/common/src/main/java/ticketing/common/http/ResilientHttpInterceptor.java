@@ -0,0 +1,242 @@
+package ticketing.common.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * 타깃(host)별 bulkhead → circuit breaker → retry(지수 backoff + full jitter) 를 거는 RestTemplate 인터셉터.
+ *  - bulkhead: 동시 요청이 max-concurrent 를 넘으면 대기 없이 BulkheadFullException (느린 타깃이 호출 스레드를 다 잡지 않게)
+ *  - circuit: 최근 window-size 건 중 실패율(IOException / 5xx)이 임계 이상이면 open-ms 동안 즉시 CircuitOpenException
+ *  - retry: 멱등 메서드는 IOException / 502·503·504 에 재시도, 그 외(POST 등)는 연결 실패(요청 미전송)만
+ *  - 메트릭(tag target=host): http_client_call_seconds{outcome}, http_client_retries_total,
+ *    http_client_rejected_total{reason}, http_client_inflight, http_client_circuit_open, http_client_pool_{leased,available,pending}
+ */
+@Slf4j
+public class ResilientHttpInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Set<HttpMethod> IDEMPOTENT = Set.of(
+            HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+
+    private final HttpClientProperties props;
+    private final PoolingHttpClientConnectionManager pool;
+    private final MeterRegistry registry;
+    private final Map<String, TargetState> targets = new ConcurrentHashMap<>();
+
+    public ResilientHttpInterceptor(HttpClientProperties props,
+                                    PoolingHttpClientConnectionManager pool,
+                                    MeterRegistry registry) {
+        this.props = props;
+        this.pool = pool;
+        this.registry = registry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = String.valueOf(request.getURI().getHost());
+        TargetState t = targets.computeIfAbsent(host, TargetState::new);
+
+        if (!t.bulkhead.tryAcquire()) {
+            t.rejectedBulkhead.increment();
+            throw new BulkheadFullException(host);
+        }
+        try {
+            boolean idempotent = IDEMPOTENT.contains(request.getMethod()) || t.cfg.getRetryNonIdempotent();
+            for (int attempt = 0; ; attempt++) {
+                if (!t.breaker.tryAcquire()) {
+                    t.rejectedCircuit.increment();
+                    throw new CircuitOpenException(host);
+                }
+                long start = System.nanoTime();
+                ClientHttpResponse resp;
+                try {
+                    resp = execution.execute(request, body);
+                } catch (IOException e) {
+                    t.breaker.record(false);
+                    t.record(start, "IO_ERROR");
+                    boolean notSent = e instanceof ConnectException;
+                    if (attempt < t.cfg.getMaxRetries() && (idempotent || notSent)) {
+                        backoff(t, attempt, e.toString());
+                        continue;
+                    }
+                    throw e;
+                } catch (RuntimeException e) {
+                    t.breaker.record(false); // HALF_OPEN 시험 요청이 걸린 채로 남지 않게
+                    t.record(start, "IO_ERROR");
+                    throw e;
+                }
+
+                int status = resp.getStatusCode().value();
+                boolean serverError = status >= 500;
+                t.breaker.record(!serverError);
+                t.record(start, serverError ? "SERVER_ERROR" : status >= 400 ? "CLIENT_ERROR" : "SUCCESS");
+                if (serverError && idempotent && attempt < t.cfg.getMaxRetries()
+                        && (status == 502 || status == 503 || status == 504)) {
+                    resp.close();
+                    backoff(t, attempt, "status " + status);
+                    continue;
+                }
+                return resp;
+            }
+        } finally {
+            t.bulkhead.release();
+        }
+    }
+
+    private void backoff(TargetState t, int attempt, String cause) throws IOException {
+        long cap = Math.min(t.cfg.getRetryMaxMs(), t.cfg.getRetryBaseMs() << Math.min(attempt, 20));
+        long sleep = ThreadLocalRandom.current().nextLong(cap + 1);
+        t.retries.increment();
+        log.debug("[HTTP-CLIENT] retry target={} attempt={} sleepMs={} cause={}", t.host, attempt + 1, sleep, cause);
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted during retry backoff", ie);
+        }
+    }
+
+    /** 타깃별 설정/상태/메트릭 (처음 호출될 때 생성) */
+    private final class TargetState {
+        final String host;
+        final HttpClientProperties.Target cfg;
+        final Semaphore bulkhead;
+        final CircuitBreaker breaker;
+        final Counter retries;
+        final Counter rejectedBulkhead;
+        final Counter rejectedCircuit;
+        final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+        TargetState(String host) {
+            this.host = host;
+            this.cfg = props.resolve(host);
+            this.bulkhead = new Semaphore(cfg.getMaxConcurrent());
+            this.breaker = new CircuitBreaker(host, cfg.getWindowSize(), cfg.getMinCalls(),
+                    cfg.getFailureRateThreshold(), cfg.getOpenMs());
+
+            retries = Counter.builder("http_client_retries_total").tag("target", host).register(registry);
+            rejectedBulkhead = Counter.builder("http_client_rejected_total")
+                    .tag("target", host).tag("reason", "bulkhead").register(registry);
+            rejectedCircuit = Counter.builder("http_client_rejected_total")
+                    .tag("target", host).tag("reason", "circuit_open").register(registry);
+            Gauge.builder("http_client_inflight", bulkhead, s -> cfg.getMaxConcurrent() - s.availablePermits())
+                    .tag("target", host).register(registry);
+            Gauge.builder("http_client_circuit_open", breaker, b -> b.isOpen() ? 1 : 0)
+                    .tag("target", host).register(registry);
+            poolGauge("http_client_pool_leased", PoolStats::getLeased);
+            poolGauge("http_client_pool_available", PoolStats::getAvailable);
+            poolGauge("http_client_pool_pending", PoolStats::getPending);
+        }
+
+        void record(long startNanos, String outcome) {
+            timers.computeIfAbsent(outcome, o -> Timer.builder("http_client_call_seconds")
+                    .description("Inter-service HTTP call latency per attempt")
+                    .tag("target", host).tag("outcome", o)
+                    .publishPercentileHistogram(true)
+                    .register(registry))
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        // 같은 host 의 route(포트/스킴별) 통계 합산
+        private void poolGauge(String name, ToIntFunction<PoolStats> f) {
+            Gauge.builder(name, pool, p -> {
+                        int sum = 0;
+                        for (HttpRoute route : p.getRoutes()) {
+                            if (host.equals(route.getTargetHost().getHostName())) sum += f.applyAsInt(p.getStats(route));
+                        }
+                        return sum;
+                    })
+                    .tag("target", host).register(registry);
+        }
+    }
+
+    /** 호출 수 기반 sliding window circuit breaker (CLOSED → OPEN → HALF_OPEN 시험 1건 → CLOSED/OPEN) */
+    static final class CircuitBreaker {
+        private final String name;
+        private final boolean[] window;
+        private final int minCalls;
+        private final int thresholdPct;
+        private final long openMs;
+
+        private int idx, size, failures;
+        private long openUntil;       // 0 = CLOSED
+        private boolean probing;      // HALF_OPEN 시험 요청 진행 중
+
+        CircuitBreaker(String name, int windowSize, int minCalls, int thresholdPct, long openMs) {
+            this.name = name;
+            this.window = new boolean[windowSize];
+            this.minCalls = minCalls;
+            this.thresholdPct = thresholdPct;
+            this.openMs = openMs;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (openUntil == 0) return true;
+            if (System.currentTimeMillis() < openUntil || probing) return false;
+            probing = true; // HALF_OPEN: 한 건만 통과
+            return true;
+        }
+
+        synchronized void record(boolean success) {
+            if (probing) {
+                probing = false;
+                if (success) {
+                    openUntil = 0;
+                    idx = size = failures = 0;
+                    log.info("[HTTP-CLIENT] circuit CLOSED target={}", name);
+                } else {
+                    openUntil = System.currentTimeMillis() + openMs;
+                }
+                return;
+            }
+            if (openUntil != 0) return; // OPEN 전에 출발한 요청 결과는 무시
+
+            if (size == window.length) {
+                if (!window[idx]) failures--;
+            } else {
+                size++;
+            }
+            window[idx] = success;
+            if (!success) failures++;
+            idx = (idx + 1) % window.length;
+
+            if (size >= minCalls && failures * 100 >= thresholdPct * size) {
+                openUntil = System.currentTimeMillis() + openMs;
+                log.warn("[HTTP-CLIENT] circuit OPEN target={} failures={}/{} openMs={}", name, failures, size, openMs);
+            }
+        }
+
+        synchronized boolean isOpen() {
+            return openUntil != 0;
+        }
+    }
+
+    public static class BulkheadFullException extends IOException {
+        public BulkheadFullException(String target) { super("Bulkhead full for target " + target); }
+    }
+
+    public static class CircuitOpenException extends IOException {
+        public CircuitOpenException(String target) { super("Circuit open for target " + target); }
+    }
+}
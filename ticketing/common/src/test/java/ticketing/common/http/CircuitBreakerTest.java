@@ -0,0 +1,104 @@
+package ticketing.common.http;
+
+import org.junit.jupiter.api.Test;
+import ticketing.common.http.ResilientHttpInterceptor.CircuitBreaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_MS = 50;
+
+    // window 4, 최소 4건, 실패율 50% 이상이면 OPEN
+    private final CircuitBreaker breaker = new CircuitBreaker("payment", 4, 4, 50, OPEN_MS);
+
+    private void record(boolean... results) {
+        for (boolean r : results) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.record(r);
+        }
+    }
+
+    @Test
+    void 최소_호출수_전에는_전부_실패해도_CLOSED() {
+        record(false, false, false);
+
+        assertThat(breaker.isOpen()).isFalse();
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void 실패율이_임계_이상이면_OPEN_되고_요청_차단() {
+        record(true, false, true, false);
+
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void 실패율이_임계_미만이면_CLOSED_유지() {
+        record(true, true, true, false);
+
+        assertThat(breaker.isOpen()).isFalse();
+    }
+
+    @Test
+    void 실패율은_최근_window_건만으로_판단() {
+        CircuitBreaker b = new CircuitBreaker("payment", 4, 4, 75, OPEN_MS);
+        for (boolean r : new boolean[]{true, true, true, true, false, false}) {
+            b.tryAcquire();
+            b.record(r);
+        }
+        assertThat(b.isOpen()).isFalse(); // window = F,F,S,S (50%)
+
+        b.tryAcquire();
+        b.record(false);                  // window = F,F,F,S (75%), 누적으로는 3/7
+
+        assertThat(b.isOpen()).isTrue();
+    }
+
+    @Test
+    void open_ms_후_HALF_OPEN_은_시험_요청_한_건만_통과() throws InterruptedException {
+        record(false, false, false, false);
+        Thread.sleep(OPEN_MS + 20);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void 시험_요청_성공이면_CLOSED_로_돌아가고_window_초기화() throws InterruptedException {
+        record(false, false, false, false);
+        Thread.sleep(OPEN_MS + 20);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.record(true);
+
+        assertThat(breaker.isOpen()).isFalse();
+        // 이전 실패는 지워졌으므로 다시 최소 호출 수를 채워야 판단
+        record(false, false, false);
+        assertThat(breaker.isOpen()).isFalse();
+    }
+
+    @Test
+    void 시험_요청_실패면_다시_OPEN() throws InterruptedException {
+        record(false, false, false, false);
+        Thread.sleep(OPEN_MS + 20);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.record(false);
+
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void OPEN_전에_출발한_요청_결과는_무시() throws InterruptedException {
+        assertThat(breaker.tryAcquire()).isTrue(); // 늦게 끝나는 요청
+        record(false, false, false, false);
+        breaker.record(true);                      // OPEN 이후 도착한 성공
+
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+}
@@ -0,0 +1,177 @@
+package ticketing.common.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import ticketing.common.http.ResilientHttpInterceptor.BulkheadFullException;
+import ticketing.common.http.ResilientHttpInterceptor.CircuitOpenException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilientHttpInterceptorTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final PoolingHttpClientConnectionManager pool = new PoolingHttpClientConnectionManager();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    // payment 타깃: 동시 1건, window 4 / 최소 4건 / 50%, 재시도 2회 (backoff 1ms)
+    private ResilientHttpInterceptor interceptor() {
+        HttpClientProperties.Target t = new HttpClientProperties.Target();
+        t.setMaxConcurrent(1);
+        t.setWindowSize(4);
+        t.setMinCalls(4);
+        t.setFailureRateThreshold(50);
+        t.setOpenMs(60_000L);
+        t.setMaxRetries(2);
+        t.setRetryBaseMs(1L);
+        t.setRetryMaxMs(1L);
+        HttpClientProperties props = new HttpClientProperties();
+        props.getTargets().put("payment", t);
+        return new ResilientHttpInterceptor(props, pool, registry);
+    }
+
+    private static MockClientHttpRequest request(HttpMethod method) {
+        return new MockClientHttpRequest(method, URI.create("http://payment:8083/ticketing/api/payments/authorize"));
+    }
+
+    private ClientHttpRequestExecution respond(HttpStatus status) {
+        return (req, body) -> {
+            calls.incrementAndGet();
+            return new MockClientHttpResponse(new byte[0], status);
+        };
+    }
+
+    private ClientHttpRequestExecution fail(IOException e) {
+        return (req, body) -> {
+            calls.incrementAndGet();
+            throw e;
+        };
+    }
+
+    private double inflight() {
+        return registry.get("http_client_inflight").tag("target", "payment").gauge().value();
+    }
+
+    @Test
+    void bulkhead_가득_차면_대기_없이_거절하고_끝나면_반납() throws Exception {
+        ResilientHttpInterceptor interceptor = interceptor();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ClientHttpResponse> slow = CompletableFuture.supplyAsync(() -> {
+            try {
+                return interceptor.intercept(request(HttpMethod.GET), new byte[0], (req, body) -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+                });
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(inflight()).isEqualTo(1.0);
+
+        assertThatThrownBy(() -> interceptor.intercept(request(HttpMethod.GET), new byte[0], respond(HttpStatus.OK)))
+                .isInstanceOf(BulkheadFullException.class);
+        assertThat(calls.get()).isZero();
+        assertThat(registry.get("http_client_rejected_total").tag("reason", "bulkhead").counter().count())
+                .isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(slow.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(inflight()).isZero();
+        assertThat(interceptor.intercept(request(HttpMethod.GET), new byte[0], respond(HttpStatus.OK))
+                .getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void 실행_중_예외가_나도_bulkhead_슬롯_반납() {
+        ResilientHttpInterceptor interceptor = interceptor();
+
+        assertThatThrownBy(() -> interceptor.intercept(request(HttpMethod.POST), new byte[0], (req, body) -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(inflight()).isZero();
+    }
+
+    @Test
+    void 서버_오류가_쌓이면_circuit_OPEN_후_호출_없이_거절() throws IOException {
+        ResilientHttpInterceptor interceptor = interceptor();
+
+        // POST 는 5xx 재시도 없음 → 1회 = window 1건
+        for (int i = 0; i < 4; i++) {
+            ClientHttpResponse resp = interceptor.intercept(request(HttpMethod.POST), new byte[0],
+                    respond(HttpStatus.INTERNAL_SERVER_ERROR));
+            assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        assertThat(calls.get()).isEqualTo(4);
+
+        assertThatThrownBy(() -> interceptor.intercept(request(HttpMethod.POST), new byte[0], respond(HttpStatus.OK)))
+                .isInstanceOf(CircuitOpenException.class);
+        assertThat(calls.get()).isEqualTo(4);
+        assertThat(registry.get("http_client_circuit_open").tag("target", "payment").gauge().value()).isEqualTo(1.0);
+        assertThat(registry.get("http_client_rejected_total").tag("reason", "circuit_open").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void 멱등_요청은_503_에_재시도() throws IOException {
+        ResilientHttpInterceptor interceptor = interceptor();
+
+        ClientHttpResponse resp = interceptor.intercept(request(HttpMethod.GET), new byte[0],
+                respond(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(calls.get()).isEqualTo(3); // 최초 1 + 재시도 2
+        assertThat(registry.get("http_client_retries_total").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void POST_는_응답_타임아웃에_재시도하지_않음() {
+        ResilientHttpInterceptor interceptor = interceptor();
+
+        assertThatThrownBy(() -> interceptor.intercept(request(HttpMethod.POST), new byte[0],
+                fail(new SocketTimeoutException("read timed out"))))
+                .isInstanceOf(SocketTimeoutException.class);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void POST_도_연결_실패는_재시도() {
+        ResilientHttpInterceptor interceptor = interceptor();
+
+        assertThatThrownBy(() -> interceptor.intercept(request(HttpMethod.POST), new byte[0],
+                fail(new ConnectException("connection refused"))))
+                .isInstanceOf(ConnectException.class);
+        assertThat(calls.get()).isEqualTo(3);
+    }
+}
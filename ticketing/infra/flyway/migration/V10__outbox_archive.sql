@@ -0,0 +1,19 @@
+-- V10__outbox_archive.sql
+-- 발행 완료(SENT) outbox 행 보관 테이블. OutboxArchiver 가 retention 지난 행을 소량 배치로 이동
+-- → outbox 는 미발행/최근 행만 남아 폴링 비용이 누적 이력과 무관
+CREATE TABLE outbox_archive (
+    id BIGINT PRIMARY KEY,                            -- 원본 outbox.id
+    event_type VARCHAR(100) NOT NULL,
+    payload JSON NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    trace_id VARCHAR(255),
+    attempts INT NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_outbox_archive_created (created_at)
+);
+
+-- 보관 대상 선별 (status = 'SENT' AND updated_at < ?)
+CREATE INDEX idx_outbox_status_updated
+    ON outbox (status, updated_at);
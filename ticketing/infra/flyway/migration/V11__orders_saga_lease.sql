@@ -0,0 +1,9 @@
+-- V11__orders_saga_lease.sql
+-- SagaWorker 배치 claim 용 lease + 상태별 조회 인덱스
+-- status 는 그대로 CREATED 유지 (FE 표시 변화 없음), lease 가 남아 있는 주문은 다른 워커/pod 가 건너뜀
+ALTER TABLE orders
+    ADD COLUMN saga_lease_until TIMESTAMP(3) NULL;    -- 결제 진행 중 lease 만료 시각 (만료되면 재시도 대상)
+
+-- CREATED 주문 claim (ORDER BY created_at, id ... FOR UPDATE SKIP LOCKED) + backlog age(MIN(created_at))
+CREATE INDEX idx_orders_status_created
+    ON orders (status, created_at);
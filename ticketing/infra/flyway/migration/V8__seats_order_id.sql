@@ -0,0 +1,5 @@
+-- V8__seats_order_id.sql
+-- 좌석을 SOLD 로 만든 주문. 일괄 확정 시 "이 주문이 확정한 좌석" 만 성공으로 집계
+-- (다른 주문이 이미 산 좌석을 성공으로 세지 않음, 같은 주문 재전달은 그대로 성공 → 멱등)
+ALTER TABLE seats
+    ADD COLUMN order_id BIGINT NULL;
@@ -0,0 +1,11 @@
+-- V9__outbox_retry.sql
+-- OutboxWorker 재시도(backoff) 상태 + 폴링 인덱스
+-- status: PENDING → SENT, 실패 시 FAILED(재시도) → max-attempts 초과 시 DEAD
+ALTER TABLE outbox
+    ADD COLUMN attempts INT NOT NULL DEFAULT 0,           -- 발행 시도 횟수 (실패 시 +1)
+    ADD COLUMN next_attempt_at TIMESTAMP(3) NULL,         -- 다음 재시도 가능 시각 (NULL = 즉시)
+    ADD COLUMN last_error VARCHAR(500) NULL;              -- 마지막 발행 실패 사유
+
+-- 상태별 id 순 claim (SELECT ... WHERE status IN (...) ORDER BY id LIMIT n FOR UPDATE SKIP LOCKED)
+CREATE INDEX idx_outbox_status_id
+    ON outbox (status, id);
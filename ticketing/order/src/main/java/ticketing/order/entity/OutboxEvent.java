@@ -39,4 +39,8 @@ public class OutboxEvent {
     @Column(name = "trace_id")
     private String traceId;
 
+    // 재시도 상태는 OutboxWorker 가 벌크 UPDATE 로만 갱신
+    @Column(name = "attempts", insertable = false, updatable = false)
+    private Integer attempts;
+
 }
@@ -1,16 +1,32 @@
 package ticketing.order.metrics;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 @Component
 public class OrderMetrics {
     private final Counter orderCreated;
     private final Counter orderConfirmed;
     private final Counter orderCancelled;
     private final Timer orderLatency;
+    private final Counter outboxPublished;
+    private final Counter outboxFailed;
+    private final Timer outboxBatch;
+    private final Counter outboxArchived;
+    private final AtomicLong outboxUnsent = new AtomicLong();
+    private final AtomicLong outboxLagSeconds = new AtomicLong();
+    private final AtomicLong outboxRows = new AtomicLong();
+    private final AtomicLong outboxArchiveRows = new AtomicLong();
+    private final AtomicInteger sagaInflight = new AtomicInteger();
+    private final AtomicLong sagaBacklogAgeSeconds = new AtomicLong();
+    private final Counter sagaStartedByEvent;
+    private final Counter sagaStartedBySweep;
 
     public OrderMetrics(MeterRegistry reg) {
         orderCreated = Counter.builder("order_request_total")
@@ -25,11 +41,66 @@ public class OrderMetrics {
         orderLatency = Timer.builder("order_latency_seconds")
                 .publishPercentileHistogram(true)
                 .register(reg);
+
+        // Outbox 릴레이
+        outboxPublished = Counter.builder("order_outbox_published_total")
+                .description("Outbox rows acked by Kafka and marked SENT")
+                .register(reg);
+        outboxFailed = Counter.builder("order_outbox_failed_total").register(reg);
+        outboxBatch = Timer.builder("order_outbox_batch_seconds")
+                .description("Outbox claim → send → ack → bulk update latency per batch")
+                .publishPercentileHistogram(true)
+                .register(reg);
+
+        // Outbox 수명 관리 (OutboxArchiver 가 주기적으로 갱신)
+        outboxArchived = Counter.builder("order_outbox_archived_total")
+                .description("SENT outbox rows moved to outbox_archive")
+                .register(reg);
+        Gauge.builder("order_outbox_unsent", outboxUnsent, AtomicLong::get)
+                .description("PENDING + FAILED outbox rows")
+                .register(reg);
+        Gauge.builder("order_outbox_lag_seconds", outboxLagSeconds, AtomicLong::get)
+                .description("Age of the oldest unsent outbox row")
+                .register(reg);
+        Gauge.builder("order_outbox_table_rows", outboxRows, AtomicLong::get)
+                .tag("table", "outbox")
+                .register(reg);
+        Gauge.builder("order_outbox_table_rows", outboxArchiveRows, AtomicLong::get)
+                .tag("table", "outbox_archive")
+                .register(reg);
+
+        // Saga (주문 → 결제)
+        Gauge.builder("order_saga_inflight", sagaInflight, AtomicInteger::get)
+                .description("Payment authorizations currently running")
+                .register(reg);
+        Gauge.builder("order_saga_backlog_age_seconds", sagaBacklogAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest CREATED order")
+                .register(reg);
+        sagaStartedByEvent = Counter.builder("order_saga_started_total").tag("source", "event").register(reg);
+        sagaStartedBySweep = Counter.builder("order_saga_started_total").tag("source", "sweep").register(reg);
     }
 
     public void incCreated() { orderCreated.increment(); }
     public void incConfirmed() { orderConfirmed.increment(); }
     public void incCancelled() { orderCancelled.increment(); }
+    public void incOutboxPublished(int n) { outboxPublished.increment(n); }
+    public void incOutboxFailed() { outboxFailed.increment(); }
+
+    public void recordOutboxBatch(Runnable r) { outboxBatch.record(r); }
+    public void incOutboxArchived(int n) { outboxArchived.increment(n); }
+
+    public void addSagaInflight(int delta) { sagaInflight.addAndGet(delta); }
+    public void setSagaBacklogAge(long seconds) { sagaBacklogAgeSeconds.set(seconds); }
+    public void incSagaStarted(String source) {
+        ("event".equals(source) ? sagaStartedByEvent : sagaStartedBySweep).increment();
+    }
+
+    public void setOutboxStats(long unsent, long lagSeconds, long rows, long archiveRows) {
+        outboxUnsent.set(unsent);
+        outboxLagSeconds.set(lagSeconds);
+        outboxRows.set(rows);
+        outboxArchiveRows.set(archiveRows);
+    }
 
     public <T> T recordLatency(java.util.concurrent.Callable<T> c) {
         try {
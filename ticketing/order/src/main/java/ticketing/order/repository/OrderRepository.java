@@ -1,6 +1,9 @@
 package ticketing.order.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ticketing.order.entity.Order;
 
 import java.util.List;
@@ -10,4 +13,51 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByStatus(String created);
 
     Optional<Order> findByIdempotencyKey(String idempotencyKey);
+
+    // ===== Saga claim (lease) =====
+
+    // lease 없는/만료된 CREATED 주문 (다른 pod 가 잠근 행은 건너뜀)
+    @Query(value = """
+            SELECT id FROM orders
+             WHERE status = 'CREATED'
+               AND (saga_lease_until IS NULL OR saga_lease_until < NOW(3))
+             ORDER BY created_at, id
+             LIMIT :limit
+             FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Long> claimCreated(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE orders SET saga_lease_until = NOW(3) + INTERVAL :leaseMs * 1000 MICROSECOND WHERE id IN (:ids)",
+            nativeQuery = true)
+    int lease(@Param("ids") List<Long> ids, @Param("leaseMs") long leaseMs);
+
+    // 단건 claim (커밋 직후 이벤트 트리거용): 아직 CREATED 이고 lease 가 없을 때만 lease 설정, 성공 시 1
+    @Modifying
+    @Query(value = """
+            UPDATE orders SET saga_lease_until = NOW(3) + INTERVAL :leaseMs * 1000 MICROSECOND
+             WHERE id = :id AND status = 'CREATED'
+               AND (saga_lease_until IS NULL OR saga_lease_until < NOW(3))
+            """, nativeQuery = true)
+    int leaseOne(@Param("id") Long id, @Param("leaseMs") long leaseMs);
+
+    // 작업 실행 시작 시 lease 를 지금부터 다시 잡음 (claim 시 잡은 lease 가 아직 유효 = 아직 내 것일 때만), 성공 시 1
+    @Modifying
+    @Query(value = """
+            UPDATE orders SET saga_lease_until = NOW(3) + INTERVAL :leaseMs * 1000 MICROSECOND
+             WHERE id = :id AND status = 'CREATED'
+               AND saga_lease_until >= NOW(3)
+            """, nativeQuery = true)
+    int renewLease(@Param("id") Long id, @Param("leaseMs") long leaseMs);
+
+    // 결제 결과 반영: 아직 CREATED 인 경우에만 (중복 처리 방지), 반영된 행 수 반환
+    @Modifying
+    @Query(value = "UPDATE orders SET status = :status, saga_lease_until = NULL WHERE id = :id AND status = 'CREATED'",
+            nativeQuery = true)
+    int completeSaga(@Param("id") Long id, @Param("status") String status);
+
+    // 가장 오래된 CREATED 주문 나이(초) = saga backlog age
+    @Query(value = "SELECT COALESCE(TIMESTAMPDIFF(SECOND, MIN(created_at), NOW()), 0) FROM orders WHERE status = 'CREATED'",
+            nativeQuery = true)
+    long oldestCreatedAgeSeconds();
 }
@@ -1,6 +1,9 @@
 package ticketing.order.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ticketing.order.entity.OutboxEvent;
 
 import java.util.List;
@@ -8,4 +11,72 @@ import java.util.List;
 public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
     // 아직 전송 안 된 이벤트만 조회
     List<OutboxEvent> findByStatus(String status);
+
+    // 발행 대상 claim: 다른 인스턴스가 잠근 행은 건너뜀 (트랜잭션 종료까지 행 잠금 유지)
+    @Query(value = """
+            SELECT * FROM outbox
+             WHERE status IN ('PENDING', 'FAILED')
+               AND (next_attempt_at IS NULL OR next_attempt_at <= NOW(3))
+             ORDER BY id
+             LIMIT :limit
+             FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> claimBatch(@Param("limit") int limit);
+
+    // 브로커 ack 받은 행 일괄 SENT
+    @Modifying
+    @Query(value = "UPDATE outbox SET status = 'SENT', updated_at = NOW(3) WHERE id IN (:ids)", nativeQuery = true)
+    int markSent(@Param("ids") List<Long> ids);
+
+    // 발행 실패: 시도 횟수 +1, backoff 후 재시도 (DB 시각 기준)
+    @Modifying
+    @Query(value = """
+            UPDATE outbox
+               SET status = :status, attempts = attempts + 1, last_error = :error,
+                   next_attempt_at = NOW(3) + INTERVAL :delayMs * 1000 MICROSECOND, updated_at = NOW(3)
+             WHERE id = :id
+            """, nativeQuery = true)
+    int markFailed(@Param("id") Long id, @Param("status") String status,
+                   @Param("error") String error, @Param("delayMs") long delayMs);
+
+    // ===== 보관(archive) / 모니터링 =====
+
+    // retention 지난 SENT 행 id (다른 인스턴스의 아카이버와 겹치지 않게 SKIP LOCKED)
+    @Query(value = """
+            SELECT id FROM outbox
+             WHERE status = 'SENT' AND updated_at < NOW(3) - INTERVAL :retentionSeconds SECOND
+             ORDER BY updated_at
+             LIMIT :limit
+             FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Long> claimArchivable(@Param("retentionSeconds") long retentionSeconds, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO outbox_archive (id, event_type, payload, status, created_at, updated_at, trace_id, attempts)
+            SELECT id, event_type, payload, status, created_at, updated_at, trace_id, attempts
+              FROM outbox WHERE id IN (:ids)
+            """, nativeQuery = true)
+    int copyToArchive(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    @Query(value = "SELECT COUNT(*) FROM outbox WHERE status IN ('PENDING', 'FAILED')", nativeQuery = true)
+    long countUnsent();
+
+    // 가장 오래된 미발행 행의 나이(초) = 발행 지연
+    @Query(value = """
+            SELECT COALESCE(TIMESTAMPDIFF(SECOND, MIN(created_at), NOW()), 0)
+              FROM outbox WHERE status IN ('PENDING', 'FAILED')
+            """, nativeQuery = true)
+    long oldestUnsentAgeSeconds();
+
+    // 통계 기반 행 수 추정 (COUNT(*) 풀스캔 없이)
+    @Query(value = """
+            SELECT COALESCE(MAX(TABLE_ROWS), 0) FROM information_schema.TABLES
+             WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = :table
+            """, nativeQuery = true)
+    long estimatedRows(@Param("table") String table);
 }
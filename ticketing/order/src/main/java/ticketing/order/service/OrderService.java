@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
@@ -30,6 +31,7 @@ public class OrderService {
     private final OutboxEventRepository outboxEventRepository;
     private final ObjectMapper om;
     private final OrderMetrics metrics; // ✅ 메트릭 주입
+    private final ApplicationEventPublisher events; // 커밋 후 saga 즉시 시작 (SagaWorker.onOrderCreated)
 
     @Observed(name = "order.create")
     @Transactional
@@ -55,6 +57,7 @@ public class OrderService {
                 orderRepo.saveAndFlush(order);
 
                 metrics.incCreated(); // ✅ 생성 카운터 증가
+                events.publishEvent(new OrderCreated(order));
 
                 log.info("[ORDER-CREATE] orderId={} eventId={} seatIds={} traceId={}",
                         order.getId(), order.getEventId(), order.getSeatIdList(), traceId);
@@ -71,6 +74,9 @@ public class OrderService {
         });
     }
 
+    // 신규 주문 커밋 후 saga 트리거용 애플리케이션 이벤트
+    public record OrderCreated(Order order) {}
+
     // 내부 DTO (직렬화용)
     record OrderCreatedPayload(Long orderId, Long eventId, List<Long> seatIds) {}
 
@@ -0,0 +1,76 @@
+package ticketing.order.worker;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ticketing.order.metrics.OrderMetrics;
+import ticketing.order.repository.OutboxEventRepository;
+
+import java.util.List;
+
+/**
+ * Outbox 수명 관리.
+ *  - retention 지난 SENT 행을 outbox_archive 로 소량 배치 이동 (배치마다 짧은 트랜잭션 → 긴 잠금/대형 undo 없음)
+ *  - 미발행 행 수 / 가장 오래된 미발행 행 나이(발행 지연) / 테이블 행 수를 주기적으로 게이지에 반영
+ *    (스크레이프마다 DB 를 치지 않도록 스케줄러가 갱신)
+ */
+@Component
+@Slf4j
+public class OutboxArchiver {
+
+    private final OutboxEventRepository outboxRepo;
+    private final OrderMetrics metrics;
+    private final TransactionTemplate tx;
+
+    private final long retentionSeconds;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public OutboxArchiver(OutboxEventRepository outboxRepo,
+                          OrderMetrics metrics,
+                          TransactionTemplate tx,
+                          @Value("${order.outbox.archive.retention-seconds:3600}") long retentionSeconds,
+                          @Value("${order.outbox.archive.batch-size:500}") int batchSize,
+                          @Value("${order.outbox.archive.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.outboxRepo = outboxRepo;
+        this.metrics = metrics;
+        this.tx = tx;
+        this.retentionSeconds = retentionSeconds;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.archive.interval-ms:60000}")
+    public void archiveSent() {
+        long moved = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer n = tx.execute(status -> {
+                List<Long> ids = outboxRepo.claimArchivable(retentionSeconds, batchSize);
+                if (ids.isEmpty()) return 0;
+                outboxRepo.copyToArchive(ids);
+                outboxRepo.deleteByIds(ids);
+                return ids.size();
+            });
+            if (n == null || n == 0) break;
+            moved += n;
+            metrics.incOutboxArchived(n);
+            if (n < batchSize) break;
+        }
+        if (moved > 0) log.info("[OUTBOX-ARCHIVE] moved {} SENT rows to outbox_archive", moved);
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.stats-interval-ms:15000}")
+    public void refreshStats() {
+        try {
+            metrics.setOutboxStats(
+                    outboxRepo.countUnsent(),
+                    outboxRepo.oldestUnsentAgeSeconds(),
+                    outboxRepo.estimatedRows("outbox"),
+                    outboxRepo.estimatedRows("outbox_archive"));
+        } catch (Exception e) {
+            log.warn("[OUTBOX-ARCHIVE] stats refresh failed error={}", e.getMessage());
+        }
+    }
+}
@@ -1,74 +1,188 @@
 package ticketing.order.worker;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
 import io.opentelemetry.context.Context;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 import ticketing.order.entity.OutboxEvent;
+import ticketing.order.metrics.OrderMetrics;
 import ticketing.order.repository.OutboxEventRepository;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Outbox → Kafka 릴레이 (at-least-once, 멀티 인스턴스).
+ *  - 트랜잭션 안에서 batch-size 만큼 FOR UPDATE SKIP LOCKED 로 claim → 다른 pod 는 잠긴 행을 건너뛰고 다음 행을 가져감
+ *  - 배치 전체를 send 로 파이프라이닝 후 모든 future(ack) 대기 → ack 받은 행만 벌크 UPDATE 로 SENT
+ *  - 실패 행은 FAILED + 지수 backoff(지터) 후 재시도, max-attempts 초과 시 DEAD
+ *  - 배치가 가득 차 있으면 같은 tick 에서 이어서 drain (max-batches-per-tick 까지)
+ *  - Kafka key = 공연 eventId → 같은 공연 이벤트는 같은 파티션 (reservation 은 eventId 별로 묶어 처리)
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class OutboxWorker {
 
+    private static final String TOPIC = "order.events";
+
     private final OutboxEventRepository outboxRepo;
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final ObservationRegistry obs; // ✅ Jaeger 연결을 위한 Observation Registry
+    private final OrderMetrics metrics;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+
+    private final int batchSize;
+    private final int maxBatchesPerTick;
+    private final long sendTimeoutMs;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final int maxAttempts;
+
+    public OutboxWorker(OutboxEventRepository outboxRepo,
+                        KafkaTemplate<String, String> kafkaTemplate,
+                        ObservationRegistry obs,
+                        OrderMetrics metrics,
+                        ObjectMapper objectMapper,
+                        TransactionTemplate tx,
+                        @Value("${order.outbox.batch-size:200}") int batchSize,
+                        @Value("${order.outbox.max-batches-per-tick:10}") int maxBatchesPerTick,
+                        @Value("${order.outbox.send-timeout-ms:10000}") long sendTimeoutMs,
+                        @Value("${order.outbox.backoff-base-ms:500}") long backoffBaseMs,
+                        @Value("${order.outbox.backoff-max-ms:60000}") long backoffMaxMs,
+                        @Value("${order.outbox.max-attempts:10}") int maxAttempts) {
+        this.outboxRepo = outboxRepo;
+        this.kafkaTemplate = kafkaTemplate;
+        this.obs = obs;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+        this.tx = tx;
+        this.batchSize = batchSize;
+        this.maxBatchesPerTick = maxBatchesPerTick;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.maxAttempts = maxAttempts;
+    }
 
-    // 5초마다 실행
-    @Scheduled(fixedDelay = 1000)
+    @Scheduled(fixedDelayString = "${order.outbox.poll-ms:1000}")
     public void publishPendingEvents() {
-        List<OutboxEvent> pending = outboxRepo.findByStatus("PENDING");
+        for (int i = 0; i < maxBatchesPerTick; i++) {
+            Integer claimed = tx.execute(status -> publishBatch());
+            if (claimed == null || claimed < batchSize) return; // 남은 행 없음 → 다음 tick
+        }
+    }
 
-        for (OutboxEvent event : pending) {
-            Observation.createNotStarted("order.outbox.publish", obs)
-                    .lowCardinalityKeyValue("event.type", event.getEventType())
-                    .observe(() -> {
+    /** 한 트랜잭션: claim → 파이프라인 send → ack 대기 → 벌크 상태 갱신. claim 한 행 수 반환 */
+    private int publishBatch() {
+        List<OutboxEvent> batch = outboxRepo.claimBatch(batchSize);
+        if (batch.isEmpty()) return 0;
+
+        Observation.createNotStarted("order.outbox.publish", obs)
+                .lowCardinalityKeyValue("batch", "true")
+                .highCardinalityKeyValue("batch.size", String.valueOf(batch.size()))
+                .observe(() -> metrics.recordOutboxBatch(() -> {
+                    // 1) 배치 전체 전송 (응답 대기 없이 파이프라이닝)
+                    List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(batch.size());
+                    for (OutboxEvent event : batch) {
                         try {
-                            // DB에 저장된 traceId를 traceparent로 사용
-                            Map<String, String> headersMap = new HashMap<>();
-                            if (event.getTraceId() != null) {
-                                headersMap.put("traceparent", event.getTraceId());
-                            } else {
-                                // 현재 trace context 가져오기
-                                Context context = Context.current().with(Span.current());
-                                W3CTraceContextPropagator.getInstance().inject(context, headersMap, Map::put);
-                            }
-
-                            // kafka record 생성
-                            ProducerRecord<String, String> record = new ProducerRecord<>("order.events", event.getPayload());
-
-                            // traceparent 헤더 추가
-                            headersMap.forEach((k, v) -> record.headers().add(k, v.getBytes(StandardCharsets.UTF_8)));
-
-                            // kafka에 발행
-                            kafkaTemplate.send(record);
-                            log.info("[OUTBOX] Published eventId={} type={} trace={}", event.getId(), event.getEventType(), headersMap.get("traceparent"));
-
-                            // 상태 갱신
-                            event.setStatus("SENT");
-                            outboxRepo.save(event);
-                        } catch(Exception e){
-                            log.error("[OUTBOX] Failed to publish eventId={} error={}", event.getId(), e.getMessage());
-                            event.setStatus("FAILED");
-                            outboxRepo.save(event);
+                            futures.add(kafkaTemplate.send(toRecord(event)));
+                        } catch (Exception e) {
+                            futures.add(CompletableFuture.failedFuture(e));
                         }
-                    });
+                    }
+
+                    // 2) 모든 ack 대기 (배치 전체에 하나의 deadline)
+                    try {
+                        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                                .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                    } catch (Exception ignored) {
+                        // 개별 future 결과로 성공/실패 판정
+                    }
+
+                    // 3) ack 받은 행은 한 번에 SENT, 나머지는 backoff 후 재시도
+                    List<Long> sent = new ArrayList<>(batch.size());
+                    for (int i = 0; i < batch.size(); i++) {
+                        OutboxEvent event = batch.get(i);
+                        CompletableFuture<SendResult<String, String>> f = futures.get(i);
+                        if (f.isDone() && !f.isCompletedExceptionally()) {
+                            sent.add(event.getId());
+                        } else {
+                            markFailed(event, f);
+                        }
+                    }
+                    if (!sent.isEmpty()) outboxRepo.markSent(sent);
+                    metrics.incOutboxPublished(sent.size());
+                    log.info("[OUTBOX] Published batch sent={} failed={}", sent.size(), batch.size() - sent.size());
+                }));
+        return batch.size();
+    }
+
+    private ProducerRecord<String, String> toRecord(OutboxEvent event) {
+        // DB에 저장된 traceId를 traceparent로 사용
+        Map<String, String> headersMap = new HashMap<>();
+        if (event.getTraceId() != null) {
+            headersMap.put("traceparent", event.getTraceId());
+        } else {
+            // 현재 trace context 가져오기
+            Context context = Context.current().with(Span.current());
+            W3CTraceContextPropagator.getInstance().inject(context, headersMap, Map::put);
+        }
+
+        ProducerRecord<String, String> record = new ProducerRecord<>(TOPIC, keyOf(event), event.getPayload());
+        headersMap.forEach((k, v) -> record.headers().add(k, v.getBytes(StandardCharsets.UTF_8)));
+        return record;
+    }
+
+    // 파티션 키: payload 의 공연 eventId (없으면 null → 라운드로빈)
+    private String keyOf(OutboxEvent event) {
+        try {
+            JsonNode id = objectMapper.readTree(event.getPayload()).get("eventId");
+            return id == null || id.isNull() ? null : id.asText();
+        } catch (Exception e) {
+            return null;
         }
     }
 
+    private void markFailed(OutboxEvent event, CompletableFuture<?> f) {
+        String error = f.isDone() ? f.handle((r, e) -> String.valueOf(e)).join() : "send timeout " + sendTimeoutMs + "ms";
+        if (error.length() > 500) error = error.substring(0, 500);
+
+        int attempts = (event.getAttempts() == null ? 0 : event.getAttempts()) + 1;
+        boolean dead = attempts >= maxAttempts;
+        long delayMs = backoffMs(attempts);
+        outboxRepo.markFailed(event.getId(), dead ? "DEAD" : "FAILED", error, delayMs);
+        metrics.incOutboxFailed();
+
+        if (dead) {
+            log.error("[OUTBOX] Giving up eventId={} type={} attempts={} error={}",
+                    event.getId(), event.getEventType(), attempts, error);
+        } else {
+            log.warn("[OUTBOX] Failed to publish eventId={} attempts={} retryInMs={} error={}",
+                    event.getId(), attempts, delayMs, error);
+        }
+    }
+
+    // 지수 backoff + full jitter: [base, min(max, base * 2^(attempts-1))]
+    private long backoffMs(int attempts) {
+        long cap = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempts - 1, 20));
+        return backoffBaseMs + ThreadLocalRandom.current().nextLong(Math.max(1, cap - backoffBaseMs + 1));
+    }
 }
@@ -3,16 +3,17 @@ package ticketing.order.worker;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 import ticketing.common.TraceIdFilter;
 import ticketing.order.entity.Order;
@@ -20,102 +21,237 @@ import ticketing.order.entity.OutboxEvent;
 import ticketing.order.metrics.OrderMetrics;
 import ticketing.order.repository.OrderRepository;
 import ticketing.order.repository.OutboxEventRepository;
+import ticketing.order.service.OrderService;
 
-import java.net.http.HttpRequest;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * 주문 → 결제 saga.
+ *  - 슬롯(동시 실행 수)을 먼저 CAS 로 확보한 만큼만 CREATED 주문을 짧은 트랜잭션으로 claim (FOR UPDATE SKIP LOCKED + lease) → 멀티 pod 안전
+ *    풀 스레드 수 = 슬롯 수이므로 작업이 큐에서 기다리지 않고, lease 는 작업이 실제로 시작될 때 다시 잡음
+ *  - 결제 호출은 트랜잭션/DB 커넥션 없이 고정 크기 풀에서 병렬 실행 (느린 결제 1건이 backlog 전체를 막지 않음)
+ *  - 결과 반영(상태 변경 + outbox INSERT)은 주문마다 별도의 짧은 트랜잭션, 아직 CREATED 일 때만
+ *  - 결제 호출 실패 시 주문은 CREATED 로 남고 lease 만료 후 재시도
+ *  - event-driven: 주문 커밋 직후 OrderCreated 이벤트로 바로 시작 (폴링 대기 없음),
+ *    폴링은 놓친 주문(풀 포화/재시작/lease 만료)을 줍는 저빈도 복구 sweep 으로만 동작
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class SagaWorker {
 
+    private static final String PAYMENT_URL = "http://payment:8083/ticketing/api/payments/authorize";
+
     private final OrderRepository orderRepo;
     private final OutboxEventRepository outboxRepo;
     private final RestTemplate restTemplate;
     private final ObservationRegistry obs; // ✅ Jaeger 연결을 위한 Observation Registry
     private final OrderMetrics metrics; // ✅ 메트릭 주입
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+
+    private final int concurrency;
+    private final long leaseMs;
+    private final boolean eventDriven;
+    private final ExecutorService payers;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    public SagaWorker(OrderRepository orderRepo,
+                      OutboxEventRepository outboxRepo,
+                      RestTemplate restTemplate,
+                      ObservationRegistry obs,
+                      OrderMetrics metrics,
+                      ObjectMapper objectMapper,
+                      TransactionTemplate tx,
+                      @Value("${order.saga.concurrency:32}") int concurrency,
+                      @Value("${order.saga.lease-ms:30000}") long leaseMs,
+                      @Value("${order.saga.event-driven:true}") boolean eventDriven) {
+        this.orderRepo = orderRepo;
+        this.outboxRepo = outboxRepo;
+        this.restTemplate = restTemplate;
+        this.obs = obs;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+        this.tx = tx;
+        this.concurrency = concurrency;
+        this.leaseMs = leaseMs;
+        this.eventDriven = eventDriven;
+        AtomicInteger seq = new AtomicInteger();
+        this.payers = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r, "saga-payer-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        payers.shutdown();
+        payers.awaitTermination(5, TimeUnit.SECONDS);
+    }
 
-    // 5초마다 실행
-    @Scheduled(fixedDelay = 1000)
-    @Transactional
+    /** 주문 커밋 직후 해당 주문 saga 즉시 시작. 풀이 가득 차면 recovery sweep 에 맡김 */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderCreated(OrderService.OrderCreated event) {
+        if (!eventDriven) return;
+        Order order = event.order();
+        if (!tryAcquireSlot()) {
+            log.debug("[SAGA] Pool full, deferring orderId={} to sweep", order.getId());
+            return;
+        }
+        // lease 설정(단건 UPDATE)도 요청 스레드가 아닌 결제 풀에서
+        dispatch(() -> {
+            Boolean mine = tx.execute(status -> orderRepo.leaseOne(order.getId(), leaseMs) == 1);
+            if (!Boolean.TRUE.equals(mine)) return; // 다른 워커가 이미 가져감
+            metrics.incSagaStarted("event");
+            runSaga(order);
+        });
+    }
+
+    // 복구 sweep: 이벤트로 시작 못 한 주문 / lease 만료 주문 처리 (event-driven=false 면 기존 폴링 방식)
+    @Scheduled(fixedDelayString = "${order.saga.poll-ms:5000}")
     public void processCreatedOrders() {
-        // 1. 상태가 CREATED인 주문들 조회
-        List<Order> createdOrders = orderRepo.findByStatus("CREATED");
-
-        for (Order order : createdOrders) {
-            // DB에서 traceId 가져오기 (없으면 새로 생성)
-            String traceId = order.getTraceId();
-
-            // ✅ Jaeger에 span 기록
-            Observation.createNotStarted("order.saga", obs)
-                    .lowCardinalityKeyValue("order.id", String.valueOf(order.getId()))
-                    .lowCardinalityKeyValue("trace.id", traceId)
-                    .observe(() -> {
-                        try {
-                            log.info("[SAGA] Processing orderId={} traceId={}", order.getId(), traceId);
-
-                            PaymentRequest reqBody = new PaymentRequest(order.getId());
-                            HttpHeaders headers = new HttpHeaders();
-                            headers.set(TraceIdFilter.HEADER, traceId);
-
-                            HttpEntity<PaymentRequest> entity = new HttpEntity<>(reqBody, headers);
-
-                            // 2. Payment 모듈 호출
-                            ResponseEntity<PaymentResponse> resp = restTemplate.postForEntity(
-                                    "http://payment:8083/ticketing/api/payments/authorize",
-                                    entity,
-                                    PaymentResponse.class
-                            );
-
-                            PaymentResponse paymentResp = resp.getBody();
-
-                            // 3. 성공 여부에 따라 상태 변경 + 이벤트 발행
-                            if (resp != null && "success".equals(paymentResp.status())) {
-                                order.setStatus("CONFIRMED");
-                                orderRepo.save(order);
-                                metrics.incConfirmed(); // ✅ Confirmed 카운터
-                                log.info("[SAGA] Order CONFIRMED orderId={} traceId={}", order.getId(), traceId);
-                                publishOutbox(order, "PAYMENT_SUCCESS", traceId);
-                            } else {
-                                order.setStatus("CANCELLED");
-                                orderRepo.save(order);
-                                metrics.incCancelled(); // ✅ Cancelled 카운터
-                                log.warn("[SAGA] Order CANCELLED orderId={} traceId={}", order.getId(), traceId);
-                                publishOutbox(order, "PAYMENT_FAILED", traceId);
-                            }
-                        } catch (Exception e) {
-                            log.error("[SAGA] Failed to process orderId={} error={} traceId={}",
-                                    order.getId(), e.getMessage(), traceId);
-                        }
-                    });
+        metrics.setSagaBacklogAge(orderRepo.oldestCreatedAgeSeconds());
+        // 1. 슬롯을 먼저 확보 (이벤트 경로와 같은 CAS → 풀 초과 구독 없음), 풀이 가득 차면 대기열을 쌓지 않고 다음 tick
+        int slots = 0;
+        while (slots < concurrency && tryAcquireSlot()) slots++;
+        if (slots == 0) return;
+
+        // 2. 확보한 슬롯만큼 CREATED 주문 claim (lease 설정 후 즉시 커밋), 못 쓴 슬롯은 반납
+        int reserved = slots;
+        List<Order> claimed;
+        try {
+            claimed = tx.execute(status -> {
+                List<Long> ids = orderRepo.claimCreated(reserved);
+                if (ids.isEmpty()) return List.<Order>of();
+                orderRepo.lease(ids, leaseMs);
+                return orderRepo.findAllById(ids);
+            });
+        } catch (RuntimeException e) {
+            releaseSlots(reserved);
+            throw e;
         }
+        int used = claimed == null ? 0 : claimed.size();
+        releaseSlots(reserved - used);
+        if (used == 0) return;
+
+        // 3. 주문별 결제를 병렬로 (lease 는 실행 시작 시점부터 다시)
+        for (Order order : claimed) {
+            metrics.incSagaStarted("sweep");
+            dispatch(() -> {
+                Boolean mine = tx.execute(status -> orderRepo.renewLease(order.getId(), leaseMs) == 1);
+                if (!Boolean.TRUE.equals(mine)) return; // lease 만료 후 다른 워커가 가져갔거나 이미 완료
+                runSaga(order);
+            });
+        }
+    }
+
+    private void releaseSlots(int n) {
+        if (n > 0) inflight.addAndGet(-n);
+    }
+
+    private boolean tryAcquireSlot() {
+        while (true) {
+            int cur = inflight.get();
+            if (cur >= concurrency) return false;
+            if (inflight.compareAndSet(cur, cur + 1)) return true;
+        }
+    }
+
+    // 슬롯(inflight)은 호출 전에 확보된 상태 → 작업 종료 시 반납
+    private void dispatch(Runnable task) {
+        metrics.addSagaInflight(1);
+        payers.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                inflight.decrementAndGet();
+                metrics.addSagaInflight(-1);
+            }
+        });
+    }
+
+    private void runSaga(Order order) {
+        // DB에서 traceId 가져오기 (없으면 새로 생성)
+        String traceId = order.getTraceId();
+
+        // ✅ Jaeger에 span 기록
+        Observation.createNotStarted("order.saga", obs)
+                .lowCardinalityKeyValue("order.id", String.valueOf(order.getId()))
+                .lowCardinalityKeyValue("trace.id", String.valueOf(traceId))
+                .observe(() -> {
+                    try {
+                        log.info("[SAGA] Processing orderId={} traceId={}", order.getId(), traceId);
+
+                        PaymentRequest reqBody = new PaymentRequest(order.getId());
+                        HttpHeaders headers = new HttpHeaders();
+                        headers.set(TraceIdFilter.HEADER, traceId);
+
+                        HttpEntity<PaymentRequest> entity = new HttpEntity<>(reqBody, headers);
+
+                        // 2. Payment 모듈 호출 (트랜잭션 밖)
+                        ResponseEntity<PaymentResponse> resp = restTemplate.postForEntity(
+                                PAYMENT_URL, entity, PaymentResponse.class);
+
+                        PaymentResponse paymentResp = resp.getBody();
+                        boolean success = paymentResp != null && "success".equals(paymentResp.status());
+
+                        // 3. 성공 여부에 따라 상태 변경 + 이벤트 발행 (주문 단위 트랜잭션)
+                        String newStatus = success ? "CONFIRMED" : "CANCELLED";
+                        String eventType = success ? "PAYMENT_SUCCESS" : "PAYMENT_FAILED";
+                        Boolean applied = tx.execute(status -> {
+                            if (orderRepo.completeSaga(order.getId(), newStatus) == 0) return false; // 이미 처리됨
+                            publishOutbox(order, eventType, traceId);
+                            return true;
+                        });
+                        if (!Boolean.TRUE.equals(applied)) {
+                            log.warn("[SAGA] Order already completed orderId={} traceId={}", order.getId(), traceId);
+                            return;
+                        }
+
+                        if (success) {
+                            metrics.incConfirmed(); // ✅ Confirmed 카운터
+                            log.info("[SAGA] Order CONFIRMED orderId={} traceId={}", order.getId(), traceId);
+                        } else {
+                            metrics.incCancelled(); // ✅ Cancelled 카운터
+                            log.warn("[SAGA] Order CANCELLED orderId={} traceId={}", order.getId(), traceId);
+                        }
+                    } catch (Exception e) {
+                        log.error("[SAGA] Failed to process orderId={} error={} traceId={} (retry after lease {}ms)",
+                                order.getId(), e.getMessage(), traceId, leaseMs);
+                    }
+                });
     }
 
+    // 상태 변경과 같은 트랜잭션에서 호출 → 실패 시 예외로 함께 롤백
     private void publishOutbox(Order order, String eventType, String traceId) {
         Observation.createNotStarted("order.outbox.insert", obs)
                 .lowCardinalityKeyValue("order.id", String.valueOf(order.getId()))
                 .lowCardinalityKeyValue("eventType", eventType)
-                .lowCardinalityKeyValue("trace.id", traceId)
+                .lowCardinalityKeyValue("trace.id", String.valueOf(traceId))
                 .lowCardinalityKeyValue("status", "PENDING")
                 .observe(() -> {
+                    String payload;
                     try {
-                        String payload = new ObjectMapper().writeValueAsString(
+                        payload = objectMapper.writeValueAsString(
                                 new PaymentEvent(order.getId(), order.getEventId(), order.getSeatIdList(), eventType, traceId)
                         );
-
-                        OutboxEvent event = OutboxEvent.builder()
-                                .eventType(eventType)
-                                .payload(payload)
-                                .status("PENDING")
-                                .traceId(traceId) // 👈 traceId 저장
-                                .build();
-
-                        outboxRepo.save(event); // 👈 이 DB INSERT가 Jaeger에 span 기록됨
-                        log.info("[SAGA] Published {} for orderId={} traceId={}", eventType, order.getId(), traceId);
-
                     } catch (Exception e) {
-                        log.error("[SAGA] Failed to publish outbox for orderId={} error={} traceId={}", order.getId(), e.getMessage(), traceId);
+                        throw new IllegalStateException("outbox payload serialization failed", e);
                     }
+
+                    OutboxEvent event = OutboxEvent.builder()
+                            .eventType(eventType)
+                            .payload(payload)
+                            .status("PENDING")
+                            .traceId(traceId) // 👈 traceId 저장
+                            .build();
+
+                    outboxRepo.save(event); // 👈 이 DB INSERT가 Jaeger에 span 기록됨
+                    log.info("[SAGA] Published {} for orderId={} traceId={}", eventType, order.getId(), traceId);
                 });
     }
 
@@ -0,0 +1,44 @@
+package ticketing.order.repository;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/** 테스트 컨테이너에 infra/flyway/migration 스크립트를 버전 순(V1, V2, ..., V10)으로 적용 */
+final class MySqlMigrations {
+
+    private static final Path MIGRATIONS = Path.of("../infra/flyway/migration");
+
+    private MySqlMigrations() {}
+
+    static void apply(MySQLContainer<?> mysql) {
+        try (Stream<Path> files = Files.list(MIGRATIONS);
+             Connection conn = DriverManager.getConnection(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword())) {
+            List<Path> scripts = files.filter(p -> p.getFileName().toString().matches("V\\d+.*\\.sql"))
+                    .sorted(Comparator.comparingInt(MySqlMigrations::version))
+                    .toList();
+            for (Path script : scripts) {
+                ScriptUtils.executeSqlScript(conn, new EncodedResource(new FileSystemResource(script), StandardCharsets.UTF_8));
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("schema migration failed", e);
+        }
+    }
+
+    private static int version(Path p) {
+        String name = p.getFileName().toString();
+        int end = 1;
+        while (end < name.length() && Character.isDigit(name.charAt(end))) end++;
+        return Integer.parseInt(name.substring(1, end));
+    }
+}
@@ -0,0 +1,118 @@
+package ticketing.order.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** saga claim / lease / 결과 반영 SQL — 실제 MySQL, Docker 가 없으면 건너뜀 */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 쿼리마다 테스트가 직접 연 트랜잭션으로 커밋
+class OrderRepositoryTest {
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        MySqlMigrations.apply(MYSQL);
+    }
+
+    @Autowired OrderRepository orderRepo;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired TransactionTemplate tx;
+
+    @BeforeEach
+    void clean() {
+        jdbc.update("DELETE FROM orders");
+    }
+
+    private long insert(String idempotencyKey) {
+        jdbc.update("INSERT INTO orders (event_id, seat_ids, idempotency_key) VALUES (1, '[1]', ?)", idempotencyKey);
+        return jdbc.queryForObject("SELECT id FROM orders WHERE idempotency_key = ?", Long.class, idempotencyKey);
+    }
+
+    // 단건 UPDATE 를 별도 트랜잭션으로 커밋, 반영된 행 수
+    private int update(IntSupplier query) {
+        Integer n = tx.execute(s -> query.getAsInt());
+        return n == null ? 0 : n;
+    }
+
+    private List<Long> claim(int limit) {
+        return tx.execute(s -> {
+            List<Long> ids = orderRepo.claimCreated(limit);
+            if (!ids.isEmpty()) orderRepo.lease(ids, 30_000);
+            return ids;
+        });
+    }
+
+    @Test
+    void lease_가_걸린_주문은_다른_sweep_이_claim_하지_않음() {
+        List<Long> ids = List.of(insert("a"), insert("b"), insert("c"));
+
+        assertThat(claim(2)).containsExactly(ids.get(0), ids.get(1));
+        assertThat(claim(10)).containsExactly(ids.get(2));
+        assertThat(claim(10)).isEmpty();
+    }
+
+    @Test
+    void lease_가_만료되면_다시_claim_되고_이전_소유자는_renew_실패() {
+        long id = insert("a");
+        tx.executeWithoutResult(s -> orderRepo.lease(List.of(id), -1_000)); // 이미 만료된 lease
+
+        assertThat(update(() -> orderRepo.renewLease(id, 30_000))).isZero();
+        assertThat(claim(10)).containsExactly(id);
+    }
+
+    @Test
+    void 커밋_트리거_단건_lease_는_한_워커만_성공() {
+        long id = insert("a");
+
+        assertThat(update(() -> orderRepo.leaseOne(id, 30_000))).isEqualTo(1);
+        assertThat(update(() -> orderRepo.leaseOne(id, 30_000))).isZero();
+        assertThat(claim(10)).isEmpty();
+    }
+
+    @Test
+    void 실행_시작_시_renew_는_lease_보유_중인_CREATED_주문만() {
+        long leased = insert("a");
+        long unleased = insert("b");
+        tx.executeWithoutResult(s -> orderRepo.lease(List.of(leased), 30_000));
+
+        assertThat(update(() -> orderRepo.renewLease(leased, 30_000))).isEqualTo(1);
+        assertThat(update(() -> orderRepo.renewLease(unleased, 30_000))).isZero();
+    }
+
+    @Test
+    void 결과_반영은_CREATED_일_때_한_번만_되고_lease_를_해제() {
+        long id = insert("a");
+        tx.executeWithoutResult(s -> orderRepo.lease(List.of(id), 30_000));
+
+        assertThat(update(() -> orderRepo.completeSaga(id, "CONFIRMED"))).isEqualTo(1);
+        assertThat(update(() -> orderRepo.completeSaga(id, "CANCELLED"))).isZero();
+        assertThat(update(() -> orderRepo.renewLease(id, 30_000))).isZero();
+        assertThat(jdbc.queryForObject("SELECT status FROM orders WHERE id = ?", String.class, id)).isEqualTo("CONFIRMED");
+        assertThat(jdbc.queryForObject("SELECT saga_lease_until FROM orders WHERE id = ?", Object.class, id)).isNull();
+    }
+}
@@ -0,0 +1,124 @@
+package ticketing.order.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ticketing.order.entity.OutboxEvent;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** outbox 배치 claim(FOR UPDATE SKIP LOCKED) / ack / 재시도 backoff SQL — 실제 MySQL, Docker 가 없으면 건너뜀 */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // claim 은 테스트가 직접 연 트랜잭션 안에서
+class OutboxEventRepositoryTest {
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        MySqlMigrations.apply(MYSQL);
+    }
+
+    @Autowired OutboxEventRepository outboxRepo;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired TransactionTemplate tx;
+
+    @BeforeEach
+    void clean() {
+        jdbc.update("DELETE FROM outbox");
+    }
+
+    private long insert() {
+        jdbc.update("INSERT INTO outbox (event_type, payload, status) VALUES ('PAYMENT_SUCCESS', '{}', 'PENDING')");
+        return jdbc.queryForObject("SELECT MAX(id) FROM outbox", Long.class);
+    }
+
+    private List<Long> claim(int limit) {
+        return tx.execute(s -> outboxRepo.claimBatch(limit).stream().map(OutboxEvent::getId).toList());
+    }
+
+    @Test
+    void 다른_트랜잭션이_claim_한_행은_건너뛰고_다음_행을_가져감() throws Exception {
+        List<Long> ids = List.of(insert(), insert(), insert(), insert());
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        // pod A: 앞 2행 claim 후 트랜잭션 유지
+        CompletableFuture<List<Long>> podA = CompletableFuture.supplyAsync(() -> tx.execute(s -> {
+            List<Long> mine = outboxRepo.claimBatch(2).stream().map(OutboxEvent::getId).toList();
+            claimed.countDown();
+            try {
+                finish.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return mine;
+        }));
+        assertThat(claimed.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // pod B: 잠금 대기 없이 나머지 2행
+        List<Long> podB = claim(10);
+        finish.countDown();
+
+        assertThat(podA.get(10, TimeUnit.SECONDS)).containsExactly(ids.get(0), ids.get(1));
+        assertThat(podB).containsExactly(ids.get(2), ids.get(3));
+    }
+
+    @Test
+    void SENT_행은_다시_claim_되지_않음() {
+        long id = insert();
+
+        tx.executeWithoutResult(s -> outboxRepo.markSent(List.of(id)));
+
+        assertThat(claim(10)).isEmpty();
+        assertThat(outboxRepo.countUnsent()).isZero();
+    }
+
+    @Test
+    void FAILED_행은_backoff_가_지나야_다시_claim() {
+        long later = insert();
+        long now = insert();
+
+        tx.executeWithoutResult(s -> {
+            outboxRepo.markFailed(later, "FAILED", "broker down", 60_000);
+            outboxRepo.markFailed(now, "FAILED", "broker down", 0);
+        });
+
+        assertThat(claim(10)).containsExactly(now);
+        assertThat(jdbc.queryForObject("SELECT attempts FROM outbox WHERE id = ?", Integer.class, later)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT last_error FROM outbox WHERE id = ?", String.class, later))
+                .isEqualTo("broker down");
+    }
+
+    @Test
+    void DEAD_행은_claim_대상이_아님() {
+        long id = insert();
+
+        tx.executeWithoutResult(s -> outboxRepo.markFailed(id, "DEAD", "gave up", 0));
+
+        assertThat(claim(10)).isEmpty();
+    }
+}
@@ -0,0 +1,190 @@
+package ticketing.order.worker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ticketing.order.entity.OutboxEvent;
+import ticketing.order.metrics.OrderMetrics;
+import ticketing.order.repository.OutboxEventRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** claim → 파이프라인 send → ack 대기 → SENT / FAILED(backoff) / DEAD 판정 */
+class OutboxWorkerTest {
+
+    private static final int BATCH_SIZE = 3;
+    private static final long BACKOFF_BASE_MS = 100;
+    private static final long BACKOFF_MAX_MS = 1000;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final OutboxEventRepository outboxRepo = mock(OutboxEventRepository.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, String> kafka = mock(KafkaTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final OutboxWorker worker = new OutboxWorker(outboxRepo, kafka, ObservationRegistry.NOOP,
+            new OrderMetrics(registry), new ObjectMapper(),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            BATCH_SIZE, 10, 200, BACKOFF_BASE_MS, BACKOFF_MAX_MS, MAX_ATTEMPTS);
+
+    private static OutboxEvent event(long id, int attempts) {
+        return OutboxEvent.builder()
+                .id(id)
+                .eventType("PAYMENT_SUCCESS")
+                .payload("{\"orderId\":" + id + ",\"eventId\":7}")
+                .status(attempts == 0 ? "PENDING" : "FAILED")
+                .attempts(attempts)
+                .build();
+    }
+
+    private static ProducerRecord<String, String> anyRecord() {
+        return any();
+    }
+
+    private static CompletableFuture<SendResult<String, String>> acked() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Test
+    void ack_받은_행만_한_번에_SENT_나머지는_FAILED() {
+        when(outboxRepo.claimBatch(BATCH_SIZE)).thenReturn(List.of(event(1, 0), event(2, 0)));
+        when(kafka.send(anyRecord()))
+                .thenReturn(acked())
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        worker.publishPendingEvents();
+
+        verify(outboxRepo).markSent(List.of(1L));
+        verify(outboxRepo).markFailed(eq(2L), eq("FAILED"), contains("broker down"), anyLong());
+        verify(outboxRepo, times(1)).claimBatch(BATCH_SIZE); // 배치가 덜 찼으면 이번 tick 종료
+        assertThat(registry.get("order_outbox_published_total").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void 배치를_전부_보낸_뒤_ack_를_기다림() {
+        List<CompletableFuture<SendResult<String, String>>> pending = new ArrayList<>();
+        when(outboxRepo.claimBatch(BATCH_SIZE)).thenReturn(List.of(event(1, 0), event(2, 0)));
+        when(kafka.send(anyRecord())).thenAnswer(inv -> {
+            CompletableFuture<SendResult<String, String>> f = new CompletableFuture<>();
+            pending.add(f);
+            // 두 번째 send 가 나가야 첫 번째 ack 가 옴 → 건별로 기다리면 타임아웃
+            if (pending.size() == 2) pending.forEach(p -> p.complete(null));
+            return f;
+        });
+
+        worker.publishPendingEvents();
+
+        verify(outboxRepo).markSent(List.of(1L, 2L));
+        verify(outboxRepo, never()).markFailed(anyLong(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void send_가_즉시_예외를_던져도_나머지_행은_발행() {
+        when(outboxRepo.claimBatch(BATCH_SIZE)).thenReturn(List.of(event(1, 0), event(2, 0)));
+        when(kafka.send(anyRecord()))
+                .thenThrow(new IllegalStateException("buffer exhausted"))
+                .thenReturn(acked());
+
+        worker.publishPendingEvents();
+
+        verify(outboxRepo).markFailed(eq(1L), eq("FAILED"), contains("buffer exhausted"), anyLong());
+        verify(outboxRepo).markSent(List.of(2L));
+    }
+
+    @Test
+    void ack_가_오지_않으면_타임아웃으로_FAILED() {
+        when(outboxRepo.claimBatch(BATCH_SIZE)).thenReturn(List.of(event(1, 0)));
+        when(kafka.send(anyRecord())).thenReturn(new CompletableFuture<>());
+
+        worker.publishPendingEvents();
+
+        verify(outboxRepo).markFailed(eq(1L), eq("FAILED"), contains("send timeout"), anyLong());
+        verify(outboxRepo, never()).markSent(any());
+    }
+
+    @Test
+    void 재시도_간격은_시도_횟수에_따라_지수적으로_늘고_상한을_넘지_않음() {
+        when(outboxRepo.claimBatch(BATCH_SIZE)).thenReturn(List.of(event(1, 0)));
+        when(kafka.send(anyRecord())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("x")));
+        worker.publishPendingEvents();
+
+        ArgumentCaptor<Long> first = ArgumentCaptor.forClass(Long.class);
+        verify(outboxRepo).markFailed(eq(1L), eq("FAILED"), anyString(), first.capture());
+        assertThat(first.getValue()).isEqualTo(BACKOFF_BASE_MS); // 1회차: [base, base]
+
+        OutboxWorker patient = new OutboxWorker(outboxRepo, kafka, ObservationRegistry.NOOP,
+                new OrderMetrics(new SimpleMeterRegistry()), new ObjectMapper(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                BATCH_SIZE, 10, 200, BACKOFF_BASE_MS, BACKOFF_MAX_MS, 100);
+        when(outboxRepo.claimBatch(BATCH_SIZE)).thenReturn(List.of(event(2, 2), event(3, 30)));
+        patient.publishPendingEvents();
+
+        ArgumentCaptor<Long> third = ArgumentCaptor.forClass(Long.class);
+        verify(outboxRepo).markFailed(eq(2L), eq("FAILED"), anyString(), third.capture());
+        assertThat(third.getValue()).isBetween(BACKOFF_BASE_MS, BACKOFF_BASE_MS * 4); // 3회차: [base, base * 2^2]
+
+        ArgumentCaptor<Long> capped = ArgumentCaptor.forClass(Long.class);
+        verify(outboxRepo).markFailed(eq(3L), eq("FAILED"), anyString(), capped.capture());
+        assertThat(capped.getValue()).isBetween(BACKOFF_BASE_MS, BACKOFF_MAX_MS);
+    }
+
+    @Test
+    void max_attempts_에_도달하면_DEAD() {
+        when(outboxRepo.claimBatch(BATCH_SIZE)).thenReturn(List.of(event(1, MAX_ATTEMPTS - 1)));
+        when(kafka.send(anyRecord())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("x")));
+
+        worker.publishPendingEvents();
+
+        verify(outboxRepo).markFailed(eq(1L), eq("DEAD"), anyString(), anyLong());
+    }
+
+    @Test
+    void 배치가_가득_차면_같은_tick_에서_이어서_drain() {
+        when(outboxRepo.claimBatch(BATCH_SIZE))
+                .thenReturn(List.of(event(1, 0), event(2, 0), event(3, 0)))
+                .thenReturn(List.of(event(4, 0)));
+        when(kafka.send(anyRecord())).thenReturn(acked());
+
+        worker.publishPendingEvents();
+
+        verify(outboxRepo, times(2)).claimBatch(anyInt());
+        verify(outboxRepo).markSent(List.of(1L, 2L, 3L));
+        verify(outboxRepo).markSent(List.of(4L));
+    }
+
+    @Test
+    void 파티션_키는_payload_의_공연_eventId() {
+        when(outboxRepo.claimBatch(BATCH_SIZE)).thenReturn(List.of(event(1, 0)));
+        when(kafka.send(anyRecord())).thenReturn(acked());
+
+        worker.publishPendingEvents();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ProducerRecord<String, String>> record = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafka).send(record.capture());
+        assertThat(record.getValue().topic()).isEqualTo("order.events");
+        assertThat(record.getValue().key()).isEqualTo("7");
+    }
+}
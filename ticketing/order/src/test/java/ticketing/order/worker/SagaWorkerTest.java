@@ -0,0 +1,253 @@
+package ticketing.order.worker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import ticketing.order.entity.Order;
+import ticketing.order.entity.OutboxEvent;
+import ticketing.order.metrics.OrderMetrics;
+import ticketing.order.repository.OrderRepository;
+import ticketing.order.repository.OutboxEventRepository;
+import ticketing.order.service.OrderService;
+import ticketing.order.worker.SagaWorker.PaymentResponse;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** 주문 커밋 트리거 / 복구 sweep 의 슬롯 확보 · lease · 결제 결과 반영 */
+class SagaWorkerTest {
+
+    private static final long LEASE_MS = 30_000;
+
+    private final OrderRepository orderRepo = mock(OrderRepository.class);
+    private final OutboxEventRepository outboxRepo = mock(OutboxEventRepository.class);
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private SagaWorker worker;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (worker != null) worker.shutdown();
+    }
+
+    private SagaWorker worker(int concurrency, boolean eventDriven) {
+        worker = new SagaWorker(orderRepo, outboxRepo, restTemplate, ObservationRegistry.NOOP,
+                new OrderMetrics(registry), new ObjectMapper(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                concurrency, LEASE_MS, eventDriven);
+        return worker;
+    }
+
+    private static Order order(long id) {
+        return Order.builder().id(id).eventId(7L).seatIds("[1,2]").status("CREATED").traceId("trace-" + id).build();
+    }
+
+    private void paymentReturns(String status) {
+        when(restTemplate.postForEntity(anyString(), any(), eq(PaymentResponse.class)))
+                .thenAnswer(inv -> ResponseEntity.ok(new PaymentResponse(1L, status)));
+    }
+
+    // 결제 호출을 latch 로 붙잡아 슬롯을 점유한 상태 만들기
+    private CountDownLatch paymentBlocks(CountDownLatch entered) {
+        CountDownLatch release = new CountDownLatch(1);
+        when(restTemplate.postForEntity(anyString(), any(), eq(PaymentResponse.class))).thenAnswer(inv -> {
+            entered.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return ResponseEntity.ok(new PaymentResponse(1L, "success"));
+        });
+        return release;
+    }
+
+    private double inflight() {
+        return registry.get("order_saga_inflight").gauge().value();
+    }
+
+    // dispatch 는 호출 스레드에서 inflight +1, 작업 종료 후 -1 → 0 이면 모든 작업 완료
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (inflight() > 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertThat(inflight()).isZero();
+    }
+
+    @Test
+    void 주문_커밋_직후_lease_를_잡고_결제_후_CONFIRMED_와_outbox_를_한_트랜잭션에() throws Exception {
+        SagaWorker w = worker(4, true);
+        when(orderRepo.leaseOne(1L, LEASE_MS)).thenReturn(1);
+        when(orderRepo.completeSaga(1L, "CONFIRMED")).thenReturn(1);
+        paymentReturns("success");
+
+        w.onOrderCreated(new OrderService.OrderCreated(order(1)));
+        awaitIdle();
+
+        verify(orderRepo).completeSaga(1L, "CONFIRMED");
+        ArgumentCaptor<OutboxEvent> outbox = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepo).save(outbox.capture());
+        assertThat(outbox.getValue().getEventType()).isEqualTo("PAYMENT_SUCCESS");
+        assertThat(outbox.getValue().getStatus()).isEqualTo("PENDING");
+        assertThat(registry.get("order_saga_started_total").tag("source", "event").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void 다른_워커가_이미_lease_를_잡았으면_결제하지_않음() throws Exception {
+        SagaWorker w = worker(4, true);
+        when(orderRepo.leaseOne(1L, LEASE_MS)).thenReturn(0);
+
+        w.onOrderCreated(new OrderService.OrderCreated(order(1)));
+        awaitIdle();
+
+        verify(orderRepo).leaseOne(1L, LEASE_MS);
+        verify(restTemplate, never()).postForEntity(anyString(), any(), eq(PaymentResponse.class));
+    }
+
+    @Test
+    void event_driven_이_꺼져_있으면_커밋_트리거_무시() {
+        SagaWorker w = worker(4, false);
+
+        w.onOrderCreated(new OrderService.OrderCreated(order(1)));
+
+        verify(orderRepo, never()).leaseOne(anyLong(), anyLong());
+        assertThat(inflight()).isZero();
+    }
+
+    @Test
+    void 결제_거절이면_CANCELLED_와_PAYMENT_FAILED() throws Exception {
+        SagaWorker w = worker(4, true);
+        when(orderRepo.leaseOne(1L, LEASE_MS)).thenReturn(1);
+        when(orderRepo.completeSaga(1L, "CANCELLED")).thenReturn(1);
+        paymentReturns("failed");
+
+        w.onOrderCreated(new OrderService.OrderCreated(order(1)));
+        awaitIdle();
+
+        ArgumentCaptor<OutboxEvent> outbox = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepo).save(outbox.capture());
+        assertThat(outbox.getValue().getEventType()).isEqualTo("PAYMENT_FAILED");
+    }
+
+    @Test
+    void 결제_호출이_실패하면_CREATED_로_남겨_lease_만료_후_재시도() throws Exception {
+        SagaWorker w = worker(4, true);
+        when(orderRepo.leaseOne(1L, LEASE_MS)).thenReturn(1);
+        when(restTemplate.postForEntity(anyString(), any(), eq(PaymentResponse.class)))
+                .thenThrow(new ResourceAccessException("payment timeout"));
+
+        w.onOrderCreated(new OrderService.OrderCreated(order(1)));
+        awaitIdle();
+
+        verify(orderRepo, never()).completeSaga(anyLong(), anyString());
+        verify(outboxRepo, never()).save(any());
+    }
+
+    @Test
+    void 이미_완료된_주문이면_outbox_를_쓰지_않음() throws Exception {
+        SagaWorker w = worker(4, true);
+        when(orderRepo.leaseOne(1L, LEASE_MS)).thenReturn(1);
+        when(orderRepo.completeSaga(1L, "CONFIRMED")).thenReturn(0);
+        paymentReturns("success");
+
+        w.onOrderCreated(new OrderService.OrderCreated(order(1)));
+        awaitIdle();
+
+        verify(outboxRepo, never()).save(any());
+    }
+
+    @Test
+    void sweep_은_빈_슬롯_수만큼만_claim_하고_실행_시작_시_lease_를_갱신() throws Exception {
+        SagaWorker w = worker(4, true);
+        when(orderRepo.claimCreated(4)).thenReturn(List.of(1L, 2L));
+        when(orderRepo.findAllById(List.of(1L, 2L))).thenReturn(List.of(order(1), order(2)));
+        when(orderRepo.renewLease(1L, LEASE_MS)).thenReturn(1);
+        when(orderRepo.renewLease(2L, LEASE_MS)).thenReturn(0); // lease 만료 후 다른 워커가 가져감
+        when(orderRepo.completeSaga(1L, "CONFIRMED")).thenReturn(1);
+        paymentReturns("success");
+
+        w.processCreatedOrders();
+        awaitIdle();
+
+        verify(orderRepo).lease(List.of(1L, 2L), LEASE_MS);
+        verify(orderRepo).completeSaga(1L, "CONFIRMED");
+        verify(orderRepo, never()).completeSaga(eq(2L), anyString());
+        assertThat(registry.get("order_saga_started_total").tag("source", "sweep").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void 실행_중인_작업이_있으면_남은_슬롯만_claim_하고_못_쓴_슬롯은_반납() throws Exception {
+        SagaWorker w = worker(2, true);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = paymentBlocks(entered);
+        when(orderRepo.leaseOne(1L, LEASE_MS)).thenReturn(1);
+        when(orderRepo.completeSaga(anyLong(), anyString())).thenReturn(1);
+        when(orderRepo.claimCreated(anyInt())).thenReturn(List.of());
+
+        w.onOrderCreated(new OrderService.OrderCreated(order(1)));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        w.processCreatedOrders();
+        verify(orderRepo).claimCreated(1);
+
+        // claim 결과가 없던 슬롯 + 끝난 작업 슬롯이 모두 반납됐으면 다음 sweep 은 2건
+        release.countDown();
+        awaitIdle();
+        w.processCreatedOrders();
+        verify(orderRepo).claimCreated(2);
+    }
+
+    @Test
+    void 슬롯이_가득_차면_커밋_트리거도_sweep_도_claim_하지_않음() throws Exception {
+        SagaWorker w = worker(1, true);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = paymentBlocks(entered);
+        when(orderRepo.leaseOne(1L, LEASE_MS)).thenReturn(1);
+        when(orderRepo.completeSaga(anyLong(), anyString())).thenReturn(1);
+
+        w.onOrderCreated(new OrderService.OrderCreated(order(1)));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        w.onOrderCreated(new OrderService.OrderCreated(order(2)));
+        w.processCreatedOrders();
+
+        verify(orderRepo, never()).leaseOne(eq(2L), anyLong());
+        verify(orderRepo, never()).claimCreated(anyInt());
+
+        release.countDown();
+        awaitIdle();
+        verify(orderRepo, timeout(1_000)).completeSaga(1L, "CONFIRMED");
+    }
+
+    @Test
+    void claim_트랜잭션이_실패해도_슬롯은_반납() {
+        SagaWorker w = worker(2, true);
+        when(orderRepo.claimCreated(anyInt()))
+                .thenThrow(new IllegalStateException("db down"))
+                .thenReturn(List.of());
+
+        assertThatThrownBy(w::processCreatedOrders).isInstanceOf(IllegalStateException.class);
+
+        // 슬롯이 샜으면 다음 sweep 은 claim 자체를 못 함
+        w.processCreatedOrders();
+        verify(orderRepo, times(2)).claimCreated(2);
+    }
+}
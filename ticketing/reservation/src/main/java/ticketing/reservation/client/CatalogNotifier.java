@@ -1,23 +1,147 @@
 package ticketing.reservation.client;
 
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import ticketing.reservation.metrics.ReservationMetrics;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 좌석 변경 → Catalog SSE 알림.
+ * hold/confirm 경로에서는 큐에 넣고 바로 리턴하고, 백그라운드 sender 가 flushIntervalMs 마다 모아서
+ * Kafka seat.updates 토픽으로 비동기 발행 (key = eventId → 이벤트 단위 순서 보장, catalog 재시작 중에도 Kafka 에 보존).
+ *  - 같은 좌석의 변경은 최신 상태 하나로 합침 (coalescing)
+ *  - 큐가 가득 차면 새 좌석 알림은 버림 (hold 자체는 이미 성공, SSE 는 best-effort)
+ *  - Catalog 장애/재시작이 hold 응답 지연/500 으로 번지지 않음
+ *  - version 은 상태를 바꾼 Lua 스크립트가 같은 EVAL 안에서 INCR 한 값을 그대로 전달
+ *    (여러 pod 에서도 버전 순서 = 실제 변경 순서, catalog 는 좌석별 version 으로 늦게 도착한 변경을 걸러냄)
+ */
 @Component
-@RequiredArgsConstructor
+@Slf4j
 public class CatalogNotifier {
 
-    // 단순 HTTP 호출을 위해 RestTemplate 사용
-    private final RestTemplate restTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final ReservationMetrics metrics;
+    private final String topic;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+
+    // (eventId, seatId) → 최신 변경. 삽입 순서 유지
+    private LinkedHashMap<SeatKey, SeatUpdate> pending = new LinkedHashMap<>();
+    private final Object lock = new Object();
+
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "catalog-notifier");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public CatalogNotifier(KafkaTemplate<String, String> kafkaTemplate,
+                           ObjectMapper objectMapper,
+                           ReservationMetrics metrics,
+                           @Value("${reservation.catalog-notify.topic:seat.updates}") String topic,
+                           @Value("${reservation.catalog-notify.queue-capacity:10000}") int capacity,
+                           @Value("${reservation.catalog-notify.batch-size:500}") int batchSize,
+                           @Value("${reservation.catalog-notify.flush-interval-ms:50}") long flushIntervalMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.topic = topic;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    @PostConstruct
+    void start() {
+        sender.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
 
-    public void notifySeatChange(Long eventId, Long seatId, String status, int version, String traceId) {
-        // Catalog 모듈의 SSE 컨트롤러 publishSeatChange를 직접 호출 불가
-        // 대신 Catalog에 알림용 REST API(/internal/seat-update)를 만들어 두고 호출
-        String url = "http://catalog:8080/ticketing/api/internal/seat-update";
-        restTemplate.postForObject(url, new SeatUpdate(eventId, seatId, status, version, traceId), Void.class);
+    @PreDestroy
+    void stop() {
+        sender.shutdown();
+        flush(); // 종료 직전 남은 알림 전송
     }
 
-    record SeatUpdate(Long eventId, Long seatId, String status, int version, String traceId) {};
+    /** 논블로킹: 큐에 넣고 즉시 리턴 (version = SeatStateStore 스크립트가 반환한 변경 버전) */
+    public void notifySeatChange(Long eventId, Long seatId, String status, long version, String traceId) {
+        SeatKey key = new SeatKey(eventId, seatId);
+        SeatUpdate update = new SeatUpdate(eventId, seatId, status, version, traceId);
+        int depth;
+        synchronized (lock) {
+            SeatUpdate prev = pending.get(key);
+            if (prev != null) {
+                // 호출 스레드 간 경합으로 낮은 버전이 늦게 들어올 수 있음 → 높은 버전 유지
+                if (version > prev.version()) pending.put(key, update);
+                metrics.incNotifyCoalesced();
+                return;
+            }
+            if (pending.size() >= capacity) {
+                metrics.incNotifyDropped();
+                log.warn("[CATALOG-NOTIFY-DROP] queue full capacity={} eventId={} seatId={} status={} traceId={}",
+                        capacity, eventId, seatId, status, traceId);
+                return;
+            }
+            pending.put(key, update);
+            depth = pending.size();
+        }
+        metrics.setNotifyQueueDepth(depth);
+    }
+
+    void flush() {
+        List<SeatUpdate> drained;
+        synchronized (lock) {
+            if (pending.isEmpty()) return;
+            drained = new ArrayList<>(pending.values());
+            pending = new LinkedHashMap<>();
+        }
+        metrics.setNotifyQueueDepth(0);
+
+        // 이벤트별로 묶어 batchSize 단위 레코드로 발행 (같은 eventId → 같은 파티션 → 버전 순서 유지)
+        Map<Long, List<SeatUpdate>> byEvent = new LinkedHashMap<>();
+        for (SeatUpdate u : drained) {
+            byEvent.computeIfAbsent(u.eventId(), k -> new ArrayList<>()).add(u);
+        }
+        byEvent.forEach((eventId, updates) -> {
+            for (int from = 0; from < updates.size(); from += batchSize) {
+                send(eventId, updates.subList(from, Math.min(from + batchSize, updates.size())));
+            }
+        });
+    }
+
+    private void send(Long eventId, List<SeatUpdate> batch) {
+        int size = batch.size();
+        try {
+            kafkaTemplate.send(topic, String.valueOf(eventId), objectMapper.writeValueAsString(batch))
+                    .whenComplete((res, ex) -> {
+                        if (ex == null) {
+                            metrics.incNotifySent(size);
+                        } else {
+                            metrics.incNotifyFailed(size);
+                            log.warn("[CATALOG-NOTIFY-FAILED] eventId={} size={} error={}", eventId, size, ex.getMessage());
+                        }
+                    });
+        } catch (Exception e) {
+            metrics.incNotifyFailed(size);
+            log.warn("[CATALOG-NOTIFY-FAILED] eventId={} size={} error={}", eventId, size, e.getMessage());
+        }
+    }
+
+    record SeatKey(Long eventId, Long seatId) {}
+
+    record SeatUpdate(Long eventId, Long seatId, String status, long version, String traceId) {}
 
 }
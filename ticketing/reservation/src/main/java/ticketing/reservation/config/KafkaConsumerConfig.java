@@ -0,0 +1,35 @@
+package ticketing.reservation.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+/**
+ * 배치 리스너 에러 처리 (Boot 가 이 CommonErrorHandler 를 리스너 컨테이너에 연결).
+ *  - 리스너가 BatchListenerFailedException(record) 을 던지면 그 앞 레코드 오프셋만 커밋, 실패 레코드부터 재전달
+ *  - 같은 레코드가 max-attempts 번 실패하면 {topic}.DLT 로 보내고 다음 레코드부터 이어서 처리 (배치 순서 유지)
+ */
+@Configuration
+@Slf4j
+public class KafkaConsumerConfig {
+
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(KafkaTemplate<String, String> kafkaTemplate,
+                                                 @Value("${reservation.order-events.retry-backoff-ms:1000}") long backoffMs,
+                                                 @Value("${reservation.order-events.max-attempts:3}") long maxAttempts) {
+        // partition -1 → DLT 파티션은 브로커가 선택 (원본과 파티션 수가 달라도 됨)
+        DeadLetterPublishingRecoverer dlt = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, ex) -> {
+                    log.error("[CONSUME-DLT] topic={} partition={} offset={} key={} error={}",
+                            record.topic(), record.partition(), record.offset(), record.key(), ex.getMessage());
+                    return new TopicPartition(record.topic() + ".DLT", -1);
+                });
+        return new DefaultErrorHandler(dlt, new FixedBackOff(backoffMs, Math.max(0, maxAttempts - 1)));
+    }
+}
@@ -13,8 +13,9 @@ import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.Headers;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 import ticketing.reservation.service.ReservationService;
 
 import java.nio.charset.StandardCharsets;
@@ -27,78 +28,96 @@ import java.util.stream.StreamSupport;
 public class OrderEventConsumer {
 
     private final ReservationService reservationService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper; // ✅ Spring 공용 ObjectMapper 주입
     private final ObservationRegistry obs;
 
-    // Kafka 토픽 수신
+    private static final TextMapGetter<Headers> HEADER_GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(Headers carrier) {
+            return () -> StreamSupport.stream(carrier.spliterator(), false)
+                    .map(Header::key)
+                    .iterator();
+        }
+
+        @Override
+        public String get(Headers carrier, String key) {
+            if (carrier == null) return null;
+            Header header = carrier.lastHeader(key);
+            return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+        }
+    };
+
+    // Kafka 토픽 수신 (배치 리스너: spring.kafka.listener.type=batch, 오프셋은 배치 단위 커밋)
+    // 레코드는 배치 순서대로 주문 단위 처리, 실패 시 그 레코드부터 재전달 → 재시도 소진 시 DLT (KafkaConsumerConfig)
     @KafkaListener(topics = "order.events", groupId = "reservation-service")
-    public void consume(ConsumerRecord<String, String> record) {
-        Headers headers = record.headers();
+    public void consume(List<ConsumerRecord<String, String>> records) {
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                handle(record);
+            } catch (Exception e) {
+                // 앞 레코드 오프셋은 커밋, 이 레코드 이후는 아직 처리 전 → 순서 그대로 재전달
+                throw new BatchListenerFailedException("order event failed offset=" + record.offset(), e, record);
+            }
+        }
+    }
 
-        // ✅ trace context 복원 (Kafka → OTel Context)
+    // 레코드별 trace context 복원 → 파싱 + 처리 전체를 그 레코드의 trace 아래 span 으로
+    private void handle(ConsumerRecord<String, String> record) throws Exception {
         Context parentCtx = W3CTraceContextPropagator.getInstance()
-                .extract(Context.current(), headers, new TextMapGetter<Headers>() {
-                    @Override
-                    public Iterable<String> keys(Headers carrier) {
-                        return () -> StreamSupport.stream(carrier.spliterator(), false)
-                                .map(Header::key)
-                                .iterator();
-                    }
-
-                    @Override
-                    public String get(Headers carrier, String key) {
-                        if (carrier == null) return null;
-                        Header header = carrier.lastHeader(key);
-                        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
-                    }
-                });
+                .extract(Context.current(), record.headers(), HEADER_GETTER);
 
-        // ✅ parentCtx를 활성화 → Observation과 연결
         try (io.opentelemetry.context.Scope scope = parentCtx.makeCurrent()) {
             Observation obsSpan = Observation.start("reservation.consume", this.obs)
                     .contextualName("consume " + record.topic());
 
             try (Observation.Scope ignored = obsSpan.openScope()) {
-                String message = record.value();
-                BaseEvent base = objectMapper.readValue(message, BaseEvent.class);
-
-                switch (base.eventType()) {
-                    case "PAYMENT_SUCCESS" -> {
-                        PaymentSuccessEvent ev = objectMapper.readValue(message, PaymentSuccessEvent.class);
-                        log.info("[CONSUME] Payment success orderId={} → mark SOLD", ev.orderId());
-                        for (Long seatId : ev.seatIds()) {
-                            reservationService.markSeatSold(ev.eventId(), seatId, ev.traceId());
-                        }
-                    }
-                    case "PAYMENT_FAILED" -> {
-                        PaymentFailedEvent ev = objectMapper.readValue(message, PaymentFailedEvent.class);
-                        log.info("[CONSUME] Payment failed orderId={} → release seats", ev.orderId());
-                        for (Long seatId : ev.seatIds()) {
-                            reservationService.releaseHold(ev.eventId(), seatId, ev.traceId());
-                        }
-                    }
-                    default -> log.warn("[CONSUME] Unknown eventType={}", base.eventType());
+                OrderEvent ev = objectMapper.readValue(record.value(), OrderEvent.class); // 1회 파싱
+                switch (String.valueOf(ev.eventType())) {
+                    case "PAYMENT_SUCCESS" -> confirm(ev);
+                    case "PAYMENT_FAILED" -> release(ev);
+                    default -> log.warn("[CONSUME] Unknown eventType={}", ev.eventType());
                 }
-
-                obsSpan.stop();
             } catch (Exception e) {
                 obsSpan.error(e);
+                log.warn("[CONSUME] Failed to process record topic={} partition={} offset={} error={}",
+                        record.topic(), record.partition(), record.offset(), e.getMessage());
+                throw e;
+            } finally {
                 obsSpan.stop();
-                log.warn("[CONSUME] Failed to parse/handle message={}", record, e);
             }
-        } catch (Exception e) {
-            log.warn("[CONSUME] Unexpected error processing record={}", record, e);
         }
     }
 
-    // 공통 Event DTO
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    record BaseEvent(String eventType) {}
+    // 주문 좌석을 한 번에 확정 (DB/Redis 왕복 수는 좌석 수와 무관)
+    private void confirm(OrderEvent ev) {
+        log.info("[CONSUME] Payment success eventId={} orderId={} → mark SOLD seats={}",
+                ev.eventId(), ev.orderId(), ev.seatIds());
+        var result = reservationService.markSeatsSold(ev.eventId(), ev.orderId(), ev.seatIds(), ev.traceId());
+        if (!result.failed().isEmpty()) {
+            // 존재하지 않는 좌석 등 재시도해도 바뀌지 않는 실패 → 로그만
+            log.warn("[CONSUME] orderId={} seats not confirmed={} traceId={}",
+                    ev.orderId(), result.failed(), ev.traceId());
+        }
+    }
 
-    // 결제 성공 이벤트 DTO
-    record PaymentSuccessEvent(Long orderId, Long eventId, List<Long> seatIds, String eventType, String traceId) {}
+    private void release(OrderEvent ev) {
+        log.info("[CONSUME] Payment failed orderId={} → release seats", ev.orderId());
+        for (Long seatId : ev.seatIds()) {
+            try {
+                reservationService.releaseHold(ev.eventId(), seatId, ev.traceId());
+            } catch (ResponseStatusException e) {
+                // hold 가 이미 만료/해제됨 (재전달 시 앞서 해제한 좌석 포함) → 건너뜀, 그 외(Redis 장애 등)는 재시도
+                log.warn("[CONSUME] release skipped orderId={} seatId={} reason={}",
+                        ev.orderId(), seatId, e.getReason());
+            }
+        }
+    }
 
-    // 결제 실패 이벤트 DTO
-    record PaymentFailedEvent(Long orderId, Long eventId, List<Long> seatIds, String eventType, String traceId) {}
+    // 결제 결과 이벤트 DTO (PAYMENT_SUCCESS / PAYMENT_FAILED 공통 스키마 → 한 번만 파싱)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record OrderEvent(Long orderId, Long eventId, List<Long> seatIds, String eventType, String traceId) {
+        OrderEvent {
+            seatIds = seatIds == null ? List.of() : seatIds;
+        }
+    }
 }
@@ -6,9 +6,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ticketing.common.ErrorResponse;
 import ticketing.common.TraceIdFilter;
+import ticketing.reservation.dto.ReservationDtos.CreateBatchReservationRequest;
+import ticketing.reservation.dto.ReservationDtos.CreateBatchReservationResponse;
 import ticketing.reservation.dto.ReservationDtos.CreateReservationRequest;
 import ticketing.reservation.dto.ReservationDtos.CreateReservationResponse;
 import ticketing.reservation.service.ReservationService;
+import ticketing.reservation.service.WaitingRoomService;
 
 import java.util.Map;
 
@@ -17,13 +20,18 @@ import java.util.Map;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final WaitingRoomService waitingRoomService;
 
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService, WaitingRoomService waitingRoomService) {
         this.reservationService = reservationService;
+        this.waitingRoomService = waitingRoomService;
     }
 
     @PostMapping
-    public ResponseEntity<?> create(@RequestBody CreateReservationRequest req, HttpServletRequest http) {
+    public ResponseEntity<?> create(@RequestBody CreateReservationRequest req,
+                                    @RequestHeader(value = "X-Queue-Token", required = false) String queueToken,
+                                    HttpServletRequest http) {
+        waitingRoomService.requireAdmitted(req.eventId(), queueToken);
         int seconds = Math.max(5, Math.min(req.holdSeconds(), 120)); // sanity clamp
         String traceId = (String) http.getAttribute(TraceIdFilter.HEADER);
 
@@ -38,6 +46,49 @@ public class ReservationController {
         );
     }
 
+    // 다좌석 일괄 선점: 하나라도 실패하면 아무 좌석도 잡지 않음
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBatch(@RequestBody CreateBatchReservationRequest req,
+                                         @RequestHeader(value = "X-Queue-Token", required = false) String queueToken,
+                                         HttpServletRequest http) {
+        waitingRoomService.requireAdmitted(req.eventId(), queueToken);
+        int seconds = Math.max(5, Math.min(req.holdSeconds(), 120)); // sanity clamp
+        String traceId = (String) http.getAttribute(TraceIdFilter.HEADER);
+
+        var result = reservationService.holdSeats(req.eventId(), req.seatIds(), seconds, traceId);
+        if (!result.success()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                    new ErrorResponse("RESERVATION_CONFLICT", "Seat already held: " + result.conflictSeatId(), traceId)
+            );
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                new CreateBatchReservationResponse(req.eventId(), result.seatIds(), seconds, result.expiresAt(), traceId)
+        );
+    }
+
+    // 서버 측 배정: 조건(maxPrice)에 맞는 연속 count 석을 골라 일괄 선점
+    @PostMapping("/best-available")
+    public ResponseEntity<?> createBestAvailable(@RequestParam long eventId,
+                                                 @RequestParam int count,
+                                                 @RequestParam(required = false) Integer maxPrice,
+                                                 @RequestParam(defaultValue = "60") int holdSeconds,
+                                                 @RequestHeader(value = "X-Queue-Token", required = false) String queueToken,
+                                                 HttpServletRequest http) {
+        waitingRoomService.requireAdmitted(eventId, queueToken);
+        int seconds = Math.max(5, Math.min(holdSeconds, 120)); // sanity clamp
+        String traceId = (String) http.getAttribute(TraceIdFilter.HEADER);
+
+        var result = reservationService.holdBestAvailable(eventId, count, maxPrice, seconds, traceId);
+        if (!result.success()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                    new ErrorResponse("RESERVATION_CONFLICT", "No " + count + " contiguous seats available", traceId)
+            );
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(
+                new CreateBatchReservationResponse(eventId, result.seatIds(), seconds, result.expiresAt(), traceId)
+        );
+    }
+
     @PostMapping("/{eventId}/{seatId}/extend")
     public Map<String, Object> extend(@PathVariable long eventId,
                                       @PathVariable long seatId,
@@ -0,0 +1,31 @@
+package ticketing.reservation.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import ticketing.reservation.dto.QueueDtos.QueueStatusResponse;
+import ticketing.reservation.service.WaitingRoomService;
+
+@RestController
+@RequestMapping("/ticketing/api/queue")
+public class WaitingRoomController {
+
+    private final WaitingRoomService waitingRoomService;
+
+    public WaitingRoomController(WaitingRoomService waitingRoomService) {
+        this.waitingRoomService = waitingRoomService;
+    }
+
+    // 대기열 진입 → token + 현재 순번 (같은 X-Caller-Id 로 재진입하면 기존 자리 유지)
+    @PostMapping("/{eventId}")
+    @ResponseStatus(HttpStatus.CREATED)
+    public QueueStatusResponse enter(@PathVariable long eventId,
+                                     @RequestHeader(value = "X-Caller-Id", required = false) String callerId) {
+        return waitingRoomService.enqueue(eventId, callerId);
+    }
+
+    // 순번/입장 여부 폴링 (estimatedWaitSeconds 를 폴링 간격 힌트로 사용)
+    @GetMapping("/{eventId}/{token}")
+    public QueueStatusResponse status(@PathVariable long eventId, @PathVariable String token) {
+        return waitingRoomService.status(eventId, token);
+    }
+}
@@ -0,0 +1,10 @@
+package ticketing.reservation.dto;
+
+import java.time.Instant;
+
+public class QueueDtos {
+    // 대기열 진입 / 상태 조회 응답
+    // admitted=true 이면 token 을 X-Queue-Token 헤더로 hold API 호출 가능 (expiresAt 까지)
+    public record QueueStatusResponse(long eventId, String token, long position, long estimatedWaitSeconds,
+                                      boolean admitted, Instant expiresAt) { }
+}
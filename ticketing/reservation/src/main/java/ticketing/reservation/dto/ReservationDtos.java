@@ -1,8 +1,13 @@
 package ticketing.reservation.dto;
 
 import java.time.Instant;
+import java.util.List;
 
 public class ReservationDtos {
     public record CreateReservationRequest(long eventId, long seatId, int holdSeconds) { }
     public record CreateReservationResponse(long eventId, long seatId, int holdSeconds, Instant expiresAt, String traceId) { }
+
+    // 다좌석 일괄 선점 (all-or-nothing)
+    public record CreateBatchReservationRequest(long eventId, List<Long> seatIds, int holdSeconds) { }
+    public record CreateBatchReservationResponse(long eventId, List<Long> seatIds, int holdSeconds, Instant expiresAt, String traceId) { }
 }
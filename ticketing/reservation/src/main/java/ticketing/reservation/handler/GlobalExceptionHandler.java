@@ -21,7 +21,8 @@ public class GlobalExceptionHandler {
                 Errors.RESERVATION_CONFLICT.equals(ex.code()) ? HttpStatus.CONFLICT :
                         Errors.RESERVATION_EXPIRED.equals(ex.code())  ? HttpStatus.GONE :
                                 Errors.VALIDATION_FAILED.equals(ex.code())    ? HttpStatus.UNPROCESSABLE_ENTITY :
-                                        HttpStatus.BAD_REQUEST;
+                                        Errors.QUEUE_NOT_ADMITTED.equals(ex.code())   ? HttpStatus.TOO_MANY_REQUESTS :
+                                                HttpStatus.BAD_REQUEST;
 
         return ResponseEntity.status(status)
                 .body(new ErrorResponse(ex.code(), ex.getMessage(), traceId));
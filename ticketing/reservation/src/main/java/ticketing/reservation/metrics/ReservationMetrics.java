@@ -1,10 +1,13 @@
 package ticketing.reservation.metrics;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Component
 public class ReservationMetrics {
     private final Counter holdSuccess;
@@ -13,6 +16,16 @@ public class ReservationMetrics {
     private final Counter confirmFailed;
     private final Counter extendSuccess;
     private final Counter releaseSuccess;
+    private final Counter holdExpired;
+    private final Counter queueEnqueued;
+    private final Counter queueAdmitted;
+    private final Counter queueRejected;
+    private final Counter queueAbandoned;
+    private final Counter notifySent;
+    private final Counter notifyCoalesced;
+    private final Counter notifyDropped;
+    private final Counter notifyFailed;
+    private final AtomicInteger notifyQueueDepth = new AtomicInteger();
     private final Timer   holdLatency;
     private final Timer   confirmLatency;
 
@@ -24,6 +37,23 @@ public class ReservationMetrics {
         extendSuccess   = Counter.builder("reservation_extend_success_total").register(reg);
         releaseSuccess  = Counter.builder("reservation_release_success_total").register(reg);
 
+        holdExpired     = Counter.builder("reservation_hold_expired_total").register(reg);
+
+        // 가상 대기열
+        queueEnqueued   = Counter.builder("reservation_queue_enqueued_total").register(reg);
+        queueAdmitted   = Counter.builder("reservation_queue_admitted_total").register(reg);
+        queueRejected   = Counter.builder("reservation_queue_rejected_total").register(reg);
+        queueAbandoned  = Counter.builder("reservation_queue_abandoned_total").register(reg);
+
+        // catalog 좌석 변경 알림 (비동기 큐)
+        notifySent      = Counter.builder("reservation_catalog_notify_sent_total").register(reg);
+        notifyCoalesced = Counter.builder("reservation_catalog_notify_coalesced_total").register(reg);
+        notifyDropped   = Counter.builder("reservation_catalog_notify_dropped_total").register(reg);
+        notifyFailed    = Counter.builder("reservation_catalog_notify_failed_total").register(reg);
+        Gauge.builder("reservation_catalog_notify_queue_depth", notifyQueueDepth, AtomicInteger::get)
+                .description("Pending seat updates waiting to be sent to catalog")
+                .register(reg);
+
         holdLatency = Timer.builder("reservation_hold_latency_ms_seconds")
                 .description("Hold latency (seconds)")
                 .publishPercentileHistogram(true)      // 👈 히스토그램
@@ -37,17 +67,28 @@ public class ReservationMetrics {
 
     // 카운터
     public void incHoldSuccess()    { holdSuccess.increment(); }
+    public void incHoldSuccess(int n) { holdSuccess.increment(n); }
     public void incHoldConflict()   { holdConflict.increment(); }
-    public void incConfirmSuccess() { confirmSuccess.increment(); }
-    public void incConfirmFailed()  { confirmFailed.increment(); }
+    public void incConfirmSuccess(int n) { confirmSuccess.increment(n); }
+    public void incConfirmFailed(int n)  { confirmFailed.increment(n); }
     public void incExtendSuccess()  { extendSuccess.increment(); }
     public void incReleaseSuccess() { releaseSuccess.increment(); }
+    public void incHoldExpired(int n)  { holdExpired.increment(n); }
+    public void incQueueEnqueued()     { queueEnqueued.increment(); }
+    public void incQueueAdmitted(int n) { queueAdmitted.increment(n); }
+    public void incQueueRejected()     { queueRejected.increment(); }
+    public void incQueueAbandoned(int n) { queueAbandoned.increment(n); }
+    public void incNotifySent(int n)   { notifySent.increment(n); }
+    public void incNotifyCoalesced()   { notifyCoalesced.increment(); }
+    public void incNotifyDropped()     { notifyDropped.increment(); }
+    public void incNotifyFailed(int n) { notifyFailed.increment(n); }
+    public void setNotifyQueueDepth(int depth) { notifyQueueDepth.set(depth); }
 
     // 타이머 사용 헬퍼
     public <T> T recordHold(java.util.concurrent.Callable<T> c) {
-        try { return holdLatency.recordCallable(c); } catch (Exception e) { throw new RuntimeException(e); }
+        try { return holdLatency.recordCallable(c); } catch (RuntimeException e) { throw e; } catch (Exception e) { throw new RuntimeException(e); }
     }
     public <T> T recordConfirm(java.util.concurrent.Callable<T> c) {
-        try { return confirmLatency.recordCallable(c); } catch (Exception e) { throw new RuntimeException(e); }
+        try { return confirmLatency.recordCallable(c); } catch (RuntimeException e) { throw e; } catch (Exception e) { throw new RuntimeException(e); }
     }
 }
@@ -6,19 +6,36 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ticketing.reservation.entity.Seat;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface SeatRepository extends JpaRepository<Seat, Long> {
     List<Seat> findByEventIdOrderByRowNoAscColNoAsc(Long eventId);
 
+    // ✅ 다좌석 일괄 확정 (이미 SOLD 인 좌석은 건드리지 않음) + 확정한 주문 기록
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query(value = """
       UPDATE seats
-         SET status = 'SOLD'
-       WHERE id = :seatId
-         AND event_id = :eventId
+         SET status = 'SOLD',
+             order_id = :orderId
+       WHERE event_id = :eventId
+         AND id IN (:seatIds)
+         AND status <> 'SOLD'
       """, nativeQuery = true)
-    int markSold(@Param("eventId") long eventId, @Param("seatId") long seatId);
+    int markSoldBatch(@Param("eventId") long eventId, @Param("orderId") long orderId,
+                      @Param("seatIds") Collection<Long> seatIds);
+
+    // 일괄 확정 후 이 주문이 SOLD 로 만든 좌석 id (없는 좌석 / 다른 주문이 이미 산 좌석 판별용)
+    @Query(value = """
+      SELECT id
+        FROM seats
+       WHERE event_id = :eventId
+         AND id IN (:seatIds)
+         AND status = 'SOLD'
+         AND order_id = :orderId
+      """, nativeQuery = true)
+    List<Long> findSoldByOrder(@Param("eventId") long eventId, @Param("orderId") long orderId,
+                               @Param("seatIds") Collection<Long> seatIds);
 
     // ✅ EXISTS 기반 최적화
     @Query(value = """
@@ -36,11 +53,4 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
         Long getEventId();
         Long getId();
     }
-
-    @Query(value = """
-    SELECT event_id, id
-      FROM seats
-     WHERE status = 'SOLD'
-""", nativeQuery = true)
-    List<Object[]> findSoldSeats();
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package ticketing.reservation.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ticketing.reservation.client.CatalogNotifier;
+import ticketing.reservation.metrics.ReservationMetrics;
+
+import java.util.Map;
+
+/**
+ * 만료된 hold 정리 + Catalog 에 AVAILABLE 알림.
+ * 좌석별 TTL 키가 없으므로(keyspace notification 대상 없음) 이벤트별 만료 인덱스(ZSET)를 주기적으로 훑음.
+ * 정리는 Lua 에서 조건부로 수행 → 여러 reservation pod 가 동시에 돌아도 좌석당 알림 1회.
+ * 알림은 CatalogNotifier 큐를 타므로 한 번에 만료된 좌석들이 벌크 요청으로 묶여 나감.
+ */
+@Component
+@Slf4j
+public class HoldExpirySweeper {
+
+    private final SeatStateStore seatStateStore;
+    private final CatalogNotifier catalogNotifier;
+    private final SeatAllocator seatAllocator;
+    private final ReservationMetrics metrics;
+    private final int batchLimit;
+
+    public HoldExpirySweeper(SeatStateStore seatStateStore,
+                             CatalogNotifier catalogNotifier,
+                             SeatAllocator seatAllocator,
+                             ReservationMetrics metrics,
+                             @Value("${reservation.hold-sweeper.batch-limit:500}") int batchLimit) {
+        this.seatStateStore = seatStateStore;
+        this.catalogNotifier = catalogNotifier;
+        this.seatAllocator = seatAllocator;
+        this.metrics = metrics;
+        this.batchLimit = batchLimit;
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.hold-sweeper.interval-ms:500}")
+    public void sweep() {
+        for (Long eventId : seatStateStore.eventsWithHolds()) {
+            try {
+                Map<Long, Long> expired = seatStateStore.sweepExpired(eventId, batchLimit);
+                if (expired.isEmpty()) continue;
+
+                expired.forEach((seatId, version) ->
+                        catalogNotifier.notifySeatChange(eventId, seatId, "AVAILABLE", version, "hold-expired"));
+                seatAllocator.markFree(eventId, expired.keySet());
+                metrics.incHoldExpired(expired.size());
+                log.info("[RESERVATION-HOLD-EXPIRED] eventId={} seats={}", eventId, expired.keySet());
+            } catch (Exception e) {
+                log.warn("[RESERVATION-HOLD-EXPIRED] sweep failed eventId={} error={}", eventId, e.getMessage());
+            }
+        }
+    }
+}
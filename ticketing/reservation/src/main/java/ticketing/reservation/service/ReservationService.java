@@ -1,17 +1,14 @@
 // src/main/java/ticketing/reservation/service/ReservationService.java
 package ticketing.reservation.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.observation.ObservationRegistry;
 import io.micrometer.observation.annotation.Observed;
-import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 import ticketing.common.ApiException;
 import ticketing.common.Errors;
@@ -23,114 +20,72 @@ import io.micrometer.common.KeyValue;
 
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @Slf4j
 public class ReservationService {
 
-    private final StringRedisTemplate redis;
-    private final ObjectMapper om;
+    private final SeatStateStore seatStateStore;
     private final SeatRepository seatRepository;
     private final ReservationMetrics metrics;
     private final ObservationRegistry obs;
     private final CatalogNotifier catalogNotifier;
+    private final SeatAllocator seatAllocator;
 
-    public ReservationService(StringRedisTemplate redis,
-                              ObjectMapper om,
+    public ReservationService(SeatStateStore seatStateStore,
                               SeatRepository seatRepository,
                               ReservationMetrics metrics,
                               ObservationRegistry obs,
-                              CatalogNotifier catalogNotifier) {
-        this.redis = redis;
-        this.om = om;
+                              CatalogNotifier catalogNotifier,
+                              SeatAllocator seatAllocator) {
+        this.seatStateStore = seatStateStore;
         this.seatRepository = seatRepository;
         this.metrics = metrics;
         this.obs = obs;
         this.catalogNotifier = catalogNotifier;
+        this.seatAllocator = seatAllocator;
     }
 
-    private String holdKey(long eventId, long seatId) {
-        return "seat:hold:%d:%d".formatted(eventId, seatId);
-    }
-
-    private String soldKey(long eventId, long seatId) {
-        return "seat:sold:%d:%d".formatted(eventId, seatId);
-    }
-
-    // ✅ 서버 기동 시 SOLD 좌석 Preload
-    @PostConstruct
-    public void preloadSoldSeats() {
-        redis.delete(redis.keys("seat:sold:*"));
-        List<Object[]> soldSeats = seatRepository.findSoldSeats();
-        for (Object[] row : soldSeats) {
-            Long eventId = ((Number) row[0]).longValue();
-            Long seatId = ((Number) row[1]).longValue();
-            redis.opsForValue().set(soldKey(eventId, seatId), "true");
-        }
-        log.info("[PRELOAD] {} SOLD seats preloaded into Redis", soldSeats.size());
-    }
-
-    private static final String LUA = """
-        local key = KEYS[1]
-        local ttl = tonumber(ARGV[1])
-        local val = ARGV[2]
-        if redis.call('EXISTS', key) == 1 then return 0 end
-        redis.call('SET', key, val, 'EX', ttl)
-        return ttl
-    """;
-
-    private static final String EXTEND_LUA = """
-        local key = KEYS[1]
-        local add = tonumber(ARGV[1])
-        if redis.call('EXISTS', key) == 0 then return -1 end
-        local remain = redis.call('TTL', key)
-        if remain < 0 then remain = 0 end
-        local newttl = remain + add
-        redis.call('EXPIRE', key, newttl)
-        return newttl
-    """;
-
-    private static final String RELEASE_LUA = """
-        local key = KEYS[1]
-        if redis.call('EXISTS', key) == 0 then
-          return -1
-        end
-        redis.call('DEL', key)
-        return 1
-    """;
+    // 한 번에 선점 가능한 최대 좌석 수
+    public static final int MAX_BATCH_SEATS = 10;
 
     public String extendHold(long eventId, long seatId, int seconds, String callerId) {
-        String k = holdKey(eventId, seatId);
-        DefaultRedisScript<Long> script = new DefaultRedisScript<>(EXTEND_LUA, Long.class);
-        Long newTtl = redis.execute(script, List.of(k), String.valueOf(seconds));
+        SeatStateStore.ExtendOutcome ret = seatStateStore.extend(eventId, seatId, seconds * 1000L);
 
-        if (newTtl == null || newTtl < 0L) {
+        if (!ret.success()) {
             log.warn("[RESERVATION-EXTEND-FAILED] eventId={} seatId={} callerId={} traceId=? reason=not_found_or_expired",
                     eventId, seatId, callerId);
             throw holdExpired();
         }
 
         metrics.incExtendSuccess();
-        catalogNotifier.notifySeatChange(eventId, seatId, "HELD", 1, "x");
+        catalogNotifier.notifySeatChange(eventId, seatId, "HELD", ret.version(), "x");
 
-        String expiresAt = DateTimeFormatter.ISO_INSTANT.format(Instant.now().plusSeconds(newTtl));
+        long newExpireAt = ret.expiresAtMs();
+        long newTtl = Math.max(0L, (newExpireAt - System.currentTimeMillis()) / 1000);
+        String expiresAt = DateTimeFormatter.ISO_INSTANT.format(Instant.ofEpochMilli(newExpireAt));
         log.info("[RESERVATION-EXTEND] eventId={} seatId={} newTtl={}s expiresAt={} callerId={}",
                 eventId, seatId, newTtl, expiresAt, callerId);
         return expiresAt;
     }
 
     public void releaseHold(long eventId, long seatId, String callerId) {
-        String k = holdKey(eventId, seatId);
-        Long r = redis.execute(new DefaultRedisScript<>(RELEASE_LUA, Long.class), List.of(k));
-        if (r == null || r == -1L) {
+        SeatStateStore.ReleaseOutcome ret = seatStateStore.release(eventId, seatId);
+        if (ret.version() > 0) {
+            // 만료된 hold 를 여기서 정리한 경우도 AVAILABLE 전환 → sweeper 는 이 좌석을 다시 보지 않으므로 여기서 알림
+            catalogNotifier.notifySeatChange(eventId, seatId, "AVAILABLE", ret.version(), "x");
+            seatAllocator.markFree(eventId, List.of(seatId));
+        }
+        if (!ret.released()) {
             log.warn("[RESERVATION-RELEASE-FAILED] eventId={} seatId={} callerId={} traceId=? reason=not_found_or_expired",
                     eventId, seatId, callerId);
             throw holdExpired();
         }
         metrics.incReleaseSuccess();
-        catalogNotifier.notifySeatChange(eventId, seatId, "AVAILABLE", 1, "x");
         log.info("[RESERVATION-RELEASE] eventId={} seatId={} callerId={} traceId=?",
                 eventId, seatId, callerId);
     }
@@ -149,49 +104,24 @@ public class ReservationService {
     @Observed(name = "reservation.hold")
     public HoldResult holdSeat(long eventId, long seatId, int holdSeconds, String traceId) {
         return metrics.recordHold(() -> {
-            // ✅ Redis 단일 소스 기반 SOLD 체크
-            boolean sold = Observation
-                    .createNotStarted("redis.isSold", obs)
+            Instant expiresAt = Instant.now().plusSeconds(holdSeconds);
+
+            // ✅ SOLD 비트 체크 + hold 인덱스 등록을 Lua 1회로
+            SeatStateStore.HoldOutcome ret = Observation
+                    .createNotStarted("redis.hold.setnx", obs)
                     .lowCardinalityKeyValue(KeyValue.of("event.id", String.valueOf(eventId)))
                     .lowCardinalityKeyValue(KeyValue.of("seat.id", String.valueOf(seatId)))
-                    .observe(() -> Boolean.TRUE.equals(redis.hasKey(soldKey(eventId, seatId))));
+                    .observe(() -> seatStateStore.hold(eventId, List.of(seatId), expiresAt.toEpochMilli()));
 
-            if (sold) {
+            if (!ret.success()) seatAllocator.markTaken(eventId, List.of(seatId)); // 배정 인덱스에서도 제외
+            if (ret.code() == SeatStateStore.HoldOutcome.SOLD) {
                 metrics.incHoldConflict();
                 log.warn("[RESERVATION-HOLD-CONFLICT] eventId={} seatId={} traceId={} reason=already_sold",
                         eventId, seatId, traceId);
                 throw new ApiException(Errors.VALIDATION_FAILED, "Seat already sold");
             }
 
-            // ✅ Hold 정보 JSON 직렬화
-            String value;
-            try {
-                value = om.writeValueAsString(Map.of(
-                        "eventId", eventId,
-                        "seatId", seatId,
-                        "traceId", traceId,
-                        "heldAt", Instant.now().toString(),
-                        "ttlSec", holdSeconds
-                ));
-            } catch (JsonProcessingException e) {
-                log.error("[RESERVATION-HOLD-ERROR] eventId={} seatId={} traceId={} error={}",
-                        eventId, seatId, traceId, e.getMessage());
-                throw new RuntimeException(e);
-            }
-
-            // ✅ Redis LuaScript 기반 setnx
-            Long ret = Observation
-                    .createNotStarted("redis.hold.setnx", obs)
-                    .lowCardinalityKeyValue(KeyValue.of("event.id", String.valueOf(eventId)))
-                    .lowCardinalityKeyValue(KeyValue.of("seat.id", String.valueOf(seatId)))
-                    .observe(() -> redis.execute(
-                            new DefaultRedisScript<>(LUA, Long.class),
-                            List.of(holdKey(eventId, seatId)),
-                            String.valueOf(holdSeconds),
-                            value
-                    ));
-
-            if (ret == null || ret == 0L) {
+            if (!ret.success()) {
                 metrics.incHoldConflict();
                 log.warn("[RESERVATION-HOLD-CONFLICT] eventId={} seatId={} traceId={} reason=already_held",
                         eventId, seatId, traceId);
@@ -200,9 +130,9 @@ public class ReservationService {
 
             // ✅ Hold 성공 처리
             metrics.incHoldSuccess();
-            catalogNotifier.notifySeatChange(eventId, seatId, "HELD", 1, traceId);
+            catalogNotifier.notifySeatChange(eventId, seatId, "HELD", ret.lastVersion(), traceId);
+            seatAllocator.markTaken(eventId, List.of(seatId));
 
-            Instant expiresAt = Instant.now().plusSeconds(holdSeconds);
             log.info("[RESERVATION-HOLD] eventId={} seatId={} holdSeconds={} expiresAt={} traceId={}",
                     eventId, seatId, holdSeconds, expiresAt, traceId);
 
@@ -211,28 +141,160 @@ public class ReservationService {
     }
 
 
+    public record BatchHoldResult(boolean success, List<Long> seatIds, Long conflictSeatId, Instant expiresAt) {
+    }
+
+    @Observed(name = "reservation.hold.batch")
+    public BatchHoldResult holdSeats(long eventId, List<Long> seatIds, int holdSeconds, String traceId) {
+        List<Long> ids = seatIds == null ? List.of() : seatIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SEATS) {
+            throw new ApiException(Errors.VALIDATION_FAILED,
+                    "seatIds must contain 1.." + MAX_BATCH_SEATS + " seats");
+        }
+
+        return metrics.recordHold(() -> {
+            Instant expiresAt = Instant.now().plusSeconds(holdSeconds);
+
+            // ✅ N좌석 검사 + 선점을 Redis 1 RTT 로
+            SeatStateStore.HoldOutcome ret = Observation
+                    .createNotStarted("redis.hold.batch", obs)
+                    .lowCardinalityKeyValue(KeyValue.of("event.id", String.valueOf(eventId)))
+                    .lowCardinalityKeyValue(KeyValue.of("seat.count", String.valueOf(ids.size())))
+                    .observe(() -> seatStateStore.hold(eventId, ids, expiresAt.toEpochMilli()));
+
+            if (!ret.success()) {
+                Long conflictSeatId = ids.get(ret.index());
+                metrics.incHoldConflict();
+                seatAllocator.markTaken(eventId, List.of(conflictSeatId));
+                if (ret.code() == SeatStateStore.HoldOutcome.SOLD) {
+                    log.warn("[RESERVATION-HOLD-CONFLICT] eventId={} seatIds={} conflictSeatId={} traceId={} reason=already_sold",
+                            eventId, ids, conflictSeatId, traceId);
+                    throw new ApiException(Errors.VALIDATION_FAILED, "Seat already sold: " + conflictSeatId);
+                }
+                log.warn("[RESERVATION-HOLD-CONFLICT] eventId={} seatIds={} conflictSeatId={} traceId={} reason=already_held",
+                        eventId, ids, conflictSeatId, traceId);
+                return new BatchHoldResult(false, ids, conflictSeatId, null);
+            }
+
+            metrics.incHoldSuccess(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                catalogNotifier.notifySeatChange(eventId, ids.get(i), "HELD", ret.versionOf(i, ids.size()), traceId);
+            }
+            seatAllocator.markTaken(eventId, ids);
+
+            log.info("[RESERVATION-HOLD-BATCH] eventId={} seatIds={} holdSeconds={} expiresAt={} traceId={}",
+                    eventId, ids, holdSeconds, expiresAt, traceId);
+            return new BatchHoldResult(true, ids, null, expiresAt);
+        });
+    }
+
+    /**
+     * 서버 측 좌석 배정: 연속 N석 후보를 받아 순서대로 원자적 선점 시도.
+     * 충돌 좌석을 포함한 후보는 건너뛰고, 후보를 모두 소진하면 실패 반환.
+     */
+    @Observed(name = "reservation.hold.best-available")
+    public BatchHoldResult holdBestAvailable(long eventId, int count, Integer maxPrice, int holdSeconds, String traceId) {
+        if (count <= 0 || count > MAX_BATCH_SEATS) {
+            throw new ApiException(Errors.VALIDATION_FAILED, "count must be 1.." + MAX_BATCH_SEATS);
+        }
+
+        return metrics.recordHold(() -> {
+            List<List<Long>> candidates = seatAllocator.candidates(eventId, count, maxPrice);
+            Set<Long> conflicted = new HashSet<>();
+            int attempts = 0;
+
+            for (List<Long> ids : candidates) {
+                if (ids.stream().anyMatch(conflicted::contains)) continue;
+                attempts++;
+
+                Instant expiresAt = Instant.now().plusSeconds(holdSeconds);
+                SeatStateStore.HoldOutcome ret = Observation
+                        .createNotStarted("redis.hold.batch", obs)
+                        .lowCardinalityKeyValue(KeyValue.of("event.id", String.valueOf(eventId)))
+                        .lowCardinalityKeyValue(KeyValue.of("seat.count", String.valueOf(ids.size())))
+                        .observe(() -> seatStateStore.hold(eventId, ids, expiresAt.toEpochMilli()));
+
+                if (!ret.success()) {
+                    metrics.incHoldConflict();
+                    conflicted.add(ids.get(ret.index()));
+                    seatAllocator.markTaken(eventId, List.of(ids.get(ret.index()))); // 다음 요청부터 후보에서 제외
+                    continue;
+                }
+
+                metrics.incHoldSuccess(ids.size());
+                for (int i = 0; i < ids.size(); i++) {
+                    catalogNotifier.notifySeatChange(eventId, ids.get(i), "HELD", ret.versionOf(i, ids.size()), traceId);
+                }
+                seatAllocator.markTaken(eventId, ids);
+                log.info("[RESERVATION-HOLD-BEST] eventId={} count={} maxPrice={} seatIds={} attempts={} expiresAt={} traceId={}",
+                        eventId, count, maxPrice, ids, attempts, expiresAt, traceId);
+                return new BatchHoldResult(true, ids, null, expiresAt);
+            }
+
+            log.warn("[RESERVATION-HOLD-BEST-FAILED] eventId={} count={} maxPrice={} candidates={} attempts={} traceId={}",
+                    eventId, count, maxPrice, candidates.size(), attempts, traceId);
+            return new BatchHoldResult(false, List.of(), null, null);
+        });
+    }
+
     public boolean isHeld(long eventId, long seatId) {
-        return Boolean.TRUE.equals(redis.hasKey(holdKey(eventId, seatId)));
+        return seatStateStore.isHeld(eventId, seatId);
+    }
+
+    public record ConfirmResult(List<Long> confirmed, List<Long> failed) {
     }
 
-    @Observed(name = "reservation.confirm")
+    /**
+     * 주문 좌석 일괄 확정: DB UPDATE 1회 + 확인 SELECT 1회 + (커밋 후) Redis EVAL 1회 + 비동기 알림.
+     * 좌석 수와 무관하게 왕복 횟수 일정. 이 주문이 SOLD 로 만든 좌석만 confirmed (같은 주문 재전달은 멱등),
+     * 존재하지 않거나 이벤트 불일치이거나 다른 주문이 이미 산 좌석은 failed 로 반환.
+     */
+    @Observed(name = "reservation.confirm.batch")
     @Transactional
-    public void markSeatSold(long eventId, long seatId, String traceId) {
-        metrics.recordConfirm(() -> {
-            redis.delete(holdKey(eventId, seatId));
-            int rows = seatRepository.markSold(eventId, seatId);
-            if (rows == 0) {
-                log.error("[RESERVATION-CONFIRM-FAILED] eventId={} seatId={} traceId={} reason=invalid_ids",
-                        eventId, seatId, traceId);
-                throw new ApiException(Errors.VALIDATION_FAILED, "Invalid eventId/seatId");
+    public ConfirmResult markSeatsSold(long eventId, long orderId, List<Long> seatIds, String traceId) {
+        List<Long> ids = seatIds == null ? List.of() : seatIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) return new ConfirmResult(List.of(), List.of());
+
+        return metrics.recordConfirm(() -> {
+            int updated = seatRepository.markSoldBatch(eventId, orderId, ids);
+            Set<Long> sold = new HashSet<>(seatRepository.findSoldByOrder(eventId, orderId, ids));
+
+            List<Long> confirmed = ids.stream().filter(sold::contains).toList();
+            List<Long> failed = ids.stream().filter(id -> !sold.contains(id)).toList();
+
+            // Redis SOLD 비트 + 알림은 커밋 후. 실패하면 예외 → 컨슈머 재전달 시 DB 는 no-op, Redis 단계만 다시 수행
+            afterCommit(() -> {
+                long lastVersion = seatStateStore.markSoldBatch(eventId, confirmed); // SOLD 비트 ON + hold 해제
+                for (int i = 0; i < confirmed.size(); i++) {
+                    catalogNotifier.notifySeatChange(eventId, confirmed.get(i), "SOLD",
+                            lastVersion - confirmed.size() + 1 + i, traceId);
+                }
+                seatAllocator.markTaken(eventId, confirmed);
+            });
+            metrics.incConfirmSuccess(confirmed.size());
+            metrics.incConfirmFailed(failed.size());
+
+            if (!failed.isEmpty()) {
+                log.error("[RESERVATION-CONFIRM-FAILED] eventId={} orderId={} seatIds={} traceId={} reason=invalid_ids_or_sold_to_other_order",
+                        eventId, orderId, failed, traceId);
             }
+            log.info("[RESERVATION-CONFIRM-BATCH] eventId={} orderId={} confirmed={} updated={} failed={} traceId={}",
+                    eventId, orderId, confirmed, updated, failed, traceId);
+            return new ConfirmResult(confirmed, failed);
+        });
+    }
 
-            redis.opsForValue().set(soldKey(eventId, seatId), "true");
-            metrics.incConfirmSuccess();
-            catalogNotifier.notifySeatChange(eventId, seatId, "SOLD", 1, traceId);
-
-            log.info("[RESERVATION-CONFIRM] eventId={} seatId={} traceId={}", eventId, seatId, traceId);
-            return null;
+    // 트랜잭션 안이면 커밋 직후 실행 (afterCommit 예외는 호출자에게 전파), 밖이면 즉시
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
         });
     }
 }
@@ -0,0 +1,208 @@
+package ticketing.reservation.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ticketing.reservation.service.SeatLayoutCache.SeatLayout;
+import ticketing.reservation.service.SeatStateStore.EventState;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * "최적 연속 N석" 후보 계산기.
+ *  - 이벤트별 빈 좌석 인덱스(FreeRunIndex)를 메모리에 유지: 좌석별 free 비트 + 행별 최장 연속 빈 구간 길이
+ *    이 pod 의 hold/release/sold/만료 정리 결과로 해당 좌석의 행만 갱신 (O(행 길이)), 요청마다 Redis 비트맵 전체를 읽지 않음
+ *  - 다른 pod 의 변경은 refresh-ms 마다 Redis EVAL 1회로 인덱스를 다시 만들어 반영 (재구성은 이벤트당 한 요청만, 나머지는 기존 인덱스 사용)
+ *  - 점수: 앞 행 우선 → 행 중앙에 가까울수록 우선. 행 순서로 훑고 최장 구간이 N 미만인 행은 건너뜀,
+ *    후보가 다 차면 중단 → 전체 정렬 없음 (정렬은 행 안의 window 만)
+ *  - 서로 겹치지 않는 상위 후보만 반환하고, 이벤트별 커서(AtomicInteger)로 시작 후보를 회전
+ *    → 동시 요청이 같은 좌석에 몰리지 않고 분산 (인덱스 잠금은 이벤트 단위)
+ * 인덱스는 힌트일 뿐이고 실제 선점은 호출 측에서 SeatStateStore.hold 로 원자적으로 수행 (Redis 가 최종 판정)
+ */
+@Component
+public class SeatAllocator {
+
+    // 분산 대상 후보 수 (이 이상은 점수가 많이 떨어지는 좌석)
+    static final int MAX_CANDIDATES = 8;
+
+    private final SeatLayoutCache layoutCache;
+    private final SeatStateStore seatStateStore;
+    private final long refreshMs;
+    private final Map<Long, AtomicInteger> cursors = new ConcurrentHashMap<>();
+    private final Map<Long, FreeRunIndex> indexes = new ConcurrentHashMap<>();
+
+    public SeatAllocator(SeatLayoutCache layoutCache,
+                         SeatStateStore seatStateStore,
+                         @Value("${reservation.allocator.refresh-ms:1000}") long refreshMs) {
+        this.layoutCache = layoutCache;
+        this.seatStateStore = seatStateStore;
+        this.refreshMs = refreshMs;
+    }
+
+    /** 선점 시도 순서대로 정렬된 연속 좌석 후보 목록 (비어 있으면 조건을 만족하는 구간 없음) */
+    public List<List<Long>> candidates(long eventId, int count, Integer maxPrice) {
+        SeatLayout layout = layoutCache.get(eventId);
+        if (layout.isEmpty() || count <= 0) return List.of();
+
+        List<int[]> picked = index(eventId, layout).pick(count, maxPrice, MAX_CANDIDATES);
+        if (picked.isEmpty()) return List.of();
+
+        // 이벤트별 커서로 시작 후보 회전 → 동시 요청 분산
+        int start = Math.floorMod(cursors.computeIfAbsent(eventId, k -> new AtomicInteger()).getAndIncrement(),
+                picked.size());
+        List<List<Long>> ordered = new ArrayList<>(picked.size());
+        for (int k = 0; k < picked.size(); k++) {
+            int s = picked.get((start + k) % picked.size())[0];
+            List<Long> ids = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) ids.add(layout.seatIds()[s + j]);
+            ordered.add(ids);
+        }
+        return ordered;
+    }
+
+    /** hold/sold 성공, 또는 선점 충돌로 이미 잡혀 있음을 알게 된 좌석 */
+    public void markTaken(long eventId, Collection<Long> seatIds) {
+        update(eventId, seatIds, false);
+    }
+
+    /** release / 만료 정리로 풀린 좌석 */
+    public void markFree(long eventId, Collection<Long> seatIds) {
+        update(eventId, seatIds, true);
+    }
+
+    private void update(long eventId, Collection<Long> seatIds, boolean free) {
+        FreeRunIndex idx = indexes.get(eventId);
+        if (idx == null) return; // 아직 배정 요청이 없던 이벤트 → 첫 요청 때 Redis 에서 만듦
+        idx.set(seatIds, free);
+    }
+
+    // 없거나 배치가 바뀌었으면 동기 생성, refresh-ms 가 지났으면 한 요청만 재구성 (나머지는 기존 인덱스로 응답)
+    private FreeRunIndex index(long eventId, SeatLayout layout) {
+        FreeRunIndex idx = indexes.get(eventId);
+        if (idx == null || idx.layout != layout) {
+            idx = FreeRunIndex.build(layout, seatStateStore.read(eventId));
+            indexes.put(eventId, idx);
+            return idx;
+        }
+        if (System.currentTimeMillis() - idx.builtAt >= refreshMs && idx.refreshing.compareAndSet(false, true)) {
+            try {
+                FreeRunIndex fresh = FreeRunIndex.build(layout, seatStateStore.read(eventId));
+                indexes.put(eventId, fresh);
+                return fresh;
+            } finally {
+                idx.refreshing.set(false);
+            }
+        }
+        return idx;
+    }
+
+    /**
+     * 이벤트 하나의 빈 좌석 인덱스. offset 은 SeatLayout 순서 (row, col 정렬) 그대로.
+     * 행 r 의 좌석은 [rowStart[r], rowStart[r + 1]), 연속 = 같은 행 + col 이 1 차이.
+     * 갱신/조회는 인덱스 객체로 동기화 (이벤트 단위 잠금)
+     */
+    static final class FreeRunIndex {
+        final SeatLayout layout;
+        final long builtAt = System.currentTimeMillis();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        private final int[] rowStart;
+        private final int[] rowOf;
+        private final int[] rowMaxRun;
+        private final BitSet free;
+        private final int center2; // 행 중앙 * 2 (정수 연산)
+
+        private FreeRunIndex(SeatLayout layout, BitSet free) {
+            this.layout = layout;
+            this.free = free;
+            this.center2 = layout.maxCol() + 1;
+            int n = layout.size();
+            this.rowOf = new int[n];
+            List<Integer> starts = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                if (i == 0 || layout.rows()[i] != layout.rows()[i - 1]) starts.add(i);
+                rowOf[i] = starts.size() - 1;
+            }
+            starts.add(n);
+            this.rowStart = starts.stream().mapToInt(Integer::intValue).toArray();
+            this.rowMaxRun = new int[rowStart.length - 1];
+            for (int r = 0; r < rowMaxRun.length; r++) rowMaxRun[r] = maxRun(r);
+        }
+
+        static FreeRunIndex build(SeatLayout layout, EventState state) {
+            BitSet free = new BitSet(layout.size());
+            for (int i = 0; i < layout.size(); i++) {
+                if (!state.isSold(i) && !state.isHeld(i, layout.seatIds()[i])) free.set(i);
+            }
+            return new FreeRunIndex(layout, free);
+        }
+
+        synchronized void set(Collection<Long> seatIds, boolean isFree) {
+            for (Long seatId : seatIds) {
+                Integer off = layout.offsets().get(seatId);
+                if (off == null || free.get(off) == isFree) continue;
+                free.set(off, isFree);
+                rowMaxRun[rowOf[off]] = maxRun(rowOf[off]);
+            }
+        }
+
+        /** 점수순으로 서로 겹치지 않는 window 시작 offset 최대 limit 개 ({start, 중앙 거리}) */
+        synchronized List<int[]> pick(int count, Integer maxPrice, int limit) {
+            List<int[]> picked = new ArrayList<>(limit);
+            List<int[]> rowWindows = new ArrayList<>();
+            for (int r = 0; r < rowMaxRun.length && picked.size() < limit; r++) {
+                if (rowMaxRun[r] < count) continue; // 이 행엔 N석 연속 구간 없음
+
+                // 행 안의 (가격 조건까지 만족하는) 연속 구간마다 window 수집
+                rowWindows.clear();
+                int runStart = -1;
+                for (int i = rowStart[r]; i <= rowStart[r + 1]; i++) {
+                    boolean ok = i < rowStart[r + 1] && free.get(i)
+                            && (maxPrice == null || layout.prices()[i] <= maxPrice);
+                    boolean contiguous = ok && runStart >= 0 && layout.cols()[i] == layout.cols()[i - 1] + 1;
+                    if (!contiguous) {
+                        if (runStart >= 0) {
+                            for (int s = runStart; s + count <= i; s++) {
+                                int mid2 = layout.cols()[s] + layout.cols()[s + count - 1]; // window 중앙 * 2
+                                rowWindows.add(new int[]{s, Math.abs(mid2 - center2)});
+                            }
+                        }
+                        runStart = ok ? i : -1;
+                    }
+                }
+
+                // 행 안에서만 중앙 거리순 정렬 → 겹치지 않게 선택 (행이 다르면 겹칠 일 없음)
+                rowWindows.sort(Comparator.comparingInt((int[] w) -> w[1]).thenComparingInt(w -> w[0]));
+                BitSet used = new BitSet();
+                for (int[] w : rowWindows) {
+                    if (picked.size() >= limit) break;
+                    if (used.get(w[0], w[0] + count).isEmpty()) {
+                        used.set(w[0], w[0] + count);
+                        picked.add(w);
+                    }
+                }
+            }
+            return picked;
+        }
+
+        // 행 r 의 최장 연속 빈 구간 길이 (가격 조건 무시 → 건너뛰기 판정용 상한)
+        private int maxRun(int r) {
+            int best = 0, cur = 0;
+            for (int i = rowStart[r]; i < rowStart[r + 1]; i++) {
+                if (!free.get(i)) {
+                    cur = 0;
+                    continue;
+                }
+                cur = (cur > 0 && layout.cols()[i] == layout.cols()[i - 1] + 1) ? cur + 1 : 1;
+                best = Math.max(best, cur);
+            }
+            return best;
+        }
+    }
+}
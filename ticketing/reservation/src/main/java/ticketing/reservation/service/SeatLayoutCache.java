@@ -0,0 +1,82 @@
+package ticketing.reservation.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ticketing.common.ApiException;
+import ticketing.common.Errors;
+import ticketing.reservation.entity.Seat;
+import ticketing.reservation.repository.SeatRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 이벤트별 좌석 배치(불변) 캐시.
+ * 좌석을 (row_no, col_no) 순으로 정렬한 위치를 dense index(offset)로 사용 → Redis 비트맵 offset 과 1:1
+ */
+@Component
+@RequiredArgsConstructor
+public class SeatLayoutCache {
+
+    private static final SeatLayout EMPTY = new SeatLayout(new long[0], new int[0], new int[0], new int[0], Map.of());
+
+    private final SeatRepository seatRepository;
+    private final Map<Long, SeatLayout> layouts = new ConcurrentHashMap<>();
+
+    public SeatLayout get(long eventId) {
+        SeatLayout layout = layouts.computeIfAbsent(eventId, this::load); // 좌석 없는 이벤트는 캐싱하지 않음 (null)
+        return layout != null ? layout : EMPTY;
+    }
+
+    public void evict(long eventId) {
+        layouts.remove(eventId);
+    }
+
+    private SeatLayout load(Long eventId) {
+        List<Seat> seats = seatRepository.findByEventIdOrderByRowNoAscColNoAsc(eventId);
+        if (seats.isEmpty()) return null;
+
+        int n = seats.size();
+        long[] ids = new long[n];
+        int[] rows = new int[n];
+        int[] cols = new int[n];
+        int[] prices = new int[n];
+        Map<Long, Integer> offsets = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            Seat s = seats.get(i);
+            ids[i] = s.getId();
+            rows[i] = s.getRowNo();
+            cols[i] = s.getColNo();
+            prices[i] = s.getPrice();
+            offsets.put(s.getId(), i);
+        }
+        return new SeatLayout(ids, rows, cols, prices, offsets);
+    }
+
+    public record SeatLayout(long[] seatIds, int[] rows, int[] cols, int[] prices, Map<Long, Integer> offsets) {
+
+        public int size() { return seatIds.length; }
+
+        public boolean isEmpty() { return seatIds.length == 0; }
+
+        public int maxRow() {
+            int max = 0;
+            for (int r : rows) max = Math.max(max, r);
+            return max;
+        }
+
+        public int maxCol() {
+            int max = 0;
+            for (int c : cols) max = Math.max(max, c);
+            return max;
+        }
+
+        public int offsetOf(long seatId) {
+            Integer off = offsets.get(seatId);
+            if (off == null) throw new ApiException(Errors.VALIDATION_FAILED, "Invalid eventId/seatId");
+            return off;
+        }
+    }
+}
@@ -1,64 +1,38 @@
 package ticketing.reservation.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import ticketing.reservation.dto.SeatDto;
 import ticketing.reservation.dto.SeatMap;
-import ticketing.reservation.entity.Seat;
-import ticketing.reservation.repository.SeatRepository;
+import ticketing.reservation.service.SeatLayoutCache.SeatLayout;
+import ticketing.reservation.service.SeatStateStore.EventState;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class SeatQueryService {
-    private final SeatRepository seatRepository;
-    private final StringRedisTemplate redis; // ✅ 주입
+    private final SeatLayoutCache layoutCache;
+    private final SeatStateStore seatStateStore;
 
     public SeatMap getSeats(Long eventId) {
-        List<Seat> entities = seatRepository.findByEventIdOrderByRowNoAscColNoAsc(eventId);
-        if (entities.isEmpty()) throw new EventNotFoundException(eventId.toString());
-
-        int rows = entities.stream().map(Seat::getRowNo).max(Comparator.naturalOrder()).orElse(0);
-        int cols = entities.stream().map(Seat::getColNo).max(Comparator.naturalOrder()).orElse(0);
-
-        // ✅ Redis에서 hold된 좌석 id 수집
-        // 키 포맷: seat:hold:{eventId}:{seatId}
-        Set<String> keys = Optional.ofNullable(redis.keys("seat:hold:%d:*".formatted(eventId)))
-                .orElseGet(Set::of);
-
-        Set<Long> heldIds = keys.stream()
-                .map(k -> {
-                    // seat:hold:EV:SEAT → 4 토큰
-                    String[] p = k.split(":");
-                    if (p.length >= 4) {
-                        try { return Long.parseLong(p[3]); } catch (NumberFormatException ignore) {}
-                    }
-                    return null;
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        List<SeatDto> seats = entities.stream()
-                .map(s -> {
-                    String status = s.getStatus().name(); // AVAILABLE/SOLD
-                    // SOLD가 아닌 좌석이 Redis에 잡혀있으면 HELD로 오버레이
-                    if (!"SOLD".equals(status) && heldIds.contains(s.getId())) {
-                        status = "HELD";
-                    }
-                    return new SeatDto(
-                            s.getId(),
-                            s.getRowNo(),
-                            s.getColNo(),
-                            s.getPrice(),
-                            status
-                    );
-                })
-                .toList();
-
-        return new SeatMap(rows, cols, seats);
+        SeatLayout layout = layoutCache.get(eventId);
+        if (layout.isEmpty()) throw new EventNotFoundException(eventId.toString());
+
+        // ✅ SOLD/HELD 비트맵 + 만료 hold 목록을 EVAL 1회로 조회 (KEYS 스캔 없음)
+        // 만료 hold 의 정리 + AVAILABLE 알림은 HoldExpirySweeper 담당
+        EventState state = seatStateStore.read(eventId);
+
+        List<SeatDto> seats = new ArrayList<>(layout.size());
+        for (int i = 0; i < layout.size(); i++) {
+            long seatId = layout.seatIds()[i];
+            String status = state.isSold(i) ? "SOLD"
+                    : state.isHeld(i, seatId) ? "HELD"
+                    : "AVAILABLE";
+            seats.add(new SeatDto(seatId, layout.rows()[i], layout.cols()[i], layout.prices()[i], status));
+        }
+
+        return new SeatMap(layout.maxRow(), layout.maxCol(), seats);
     }
 
     public static class EventNotFoundException extends RuntimeException {
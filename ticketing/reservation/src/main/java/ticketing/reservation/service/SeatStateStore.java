@@ -0,0 +1,289 @@
+package ticketing.reservation.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import ticketing.reservation.service.SeatLayoutCache.SeatLayout;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 이벤트 단위 좌석 상태 저장소 (Redis)
+ *  - seat:state:sold:{eventId}  SOLD 비트맵 (offset = SeatLayout dense index)
+ *  - seat:state:held:{eventId}  HELD 비트맵
+ *  - seat:hold:exp:{eventId}    hold 만료 인덱스 ZSET (member = seatId, score = 만료 epoch ms)
+ *  - seat:hold:events           hold 가 남아있는 eventId SET (만료 sweeper 순회용)
+ * 좌석당 키를 두지 않으므로 5만석 이벤트도 키 3개로 끝남.
+ * HELD 비트는 만료돼도 즉시 지워지지 않으므로, "살아있는 hold" 판정은 항상 ZSET score(> now) 기준.
+ * 상태를 바꾸는 스크립트는 같은 EVAL 안에서 seat:ver:{eventId} 를 INCR 해 변경 버전을 반환
+ * → 여러 pod 에서도 버전 순서 = 실제 상태 변경 순서 (catalog 의 좌석별 "낮은 버전 무시" 가 안전)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatStateStore {
+
+    private final StringRedisTemplate redis;
+    private final SeatLayoutCache layoutCache;
+
+    public static String soldKey(long eventId) { return "seat:state:sold:" + eventId; }
+    public static String heldKey(long eventId) { return "seat:state:held:" + eventId; }
+    public static String holdIndexKey(long eventId) { return "seat:hold:exp:" + eventId; }
+    public static final String HOLD_EVENTS_KEY = "seat:hold:events";
+    // 이벤트별 좌석 변경 버전 (단조 증가, catalog delta 동기화용)
+    public static String versionKey(long eventId) { return "seat:ver:" + eventId; }
+
+    // KEYS = sold, held, exp, events, ver / ARGV = now, expireAt, eventId, (offset, seatId)...
+    // 반환: {1, n, lastVersion} 성공 (i번째 좌석 버전 = lastVersion - n + i) / {-1, i} i번째 좌석 SOLD / {0, i} i번째 좌석 이미 HOLD
+    private static final DefaultRedisScript<List> HOLD_SCRIPT = new DefaultRedisScript<>("""
+        local now = tonumber(ARGV[1])
+        local n = (#ARGV - 3) / 2
+        for i = 1, n do
+          if redis.call('GETBIT', KEYS[1], tonumber(ARGV[2 + i * 2])) == 1 then return {-1, i} end
+          local exp = redis.call('ZSCORE', KEYS[3], ARGV[3 + i * 2])
+          if exp and tonumber(exp) > now then return {0, i} end
+        end
+        for i = 1, n do
+          redis.call('SETBIT', KEYS[2], tonumber(ARGV[2 + i * 2]), 1)
+          redis.call('ZADD', KEYS[3], ARGV[2], ARGV[3 + i * 2])
+        end
+        redis.call('SADD', KEYS[4], ARGV[3])
+        return {1, n, redis.call('INCRBY', KEYS[5], n)}
+    """, List.class);
+
+    // KEYS = exp, ver / ARGV = now, addMs, seatId → {새 만료 epoch ms, version}, 없거나 만료면 {-1, 0}
+    private static final DefaultRedisScript<List> EXTEND_SCRIPT = new DefaultRedisScript<>("""
+        local exp = redis.call('ZSCORE', KEYS[1], ARGV[3])
+        if not exp or tonumber(exp) <= tonumber(ARGV[1]) then return {-1, 0} end
+        local newExp = tonumber(exp) + tonumber(ARGV[2])
+        redis.call('ZADD', KEYS[1], newExp, ARGV[3])
+        return {newExp, redis.call('INCR', KEYS[2])}
+    """, List.class);
+
+    // KEYS = held, exp, ver / ARGV = now, offset, seatId
+    // → {1, version} 해제 / {-1, version} 이미 만료된 hold 정리(AVAILABLE 전환은 일어남) / {-1, 0} hold 없음
+    private static final DefaultRedisScript<List> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+        local exp = redis.call('ZSCORE', KEYS[2], ARGV[3])
+        if not exp then return {-1, 0} end
+        redis.call('ZREM', KEYS[2], ARGV[3])
+        redis.call('SETBIT', KEYS[1], tonumber(ARGV[2]), 0)
+        local v = redis.call('INCR', KEYS[3])
+        if tonumber(exp) <= tonumber(ARGV[1]) then return {-1, v} end
+        return {1, v}
+    """, List.class);
+
+    // KEYS = sold, held, exp, ver / ARGV = (offset, seatId)... → lastVersion (i번째 좌석 = lastVersion - n + i)
+    private static final DefaultRedisScript<Long> SOLD_BATCH_SCRIPT = new DefaultRedisScript<>("""
+        for i = 1, #ARGV, 2 do
+          redis.call('SETBIT', KEYS[1], tonumber(ARGV[i]), 1)
+          redis.call('SETBIT', KEYS[2], tonumber(ARGV[i]), 0)
+          redis.call('ZREM', KEYS[3], ARGV[i + 1])
+        end
+        return redis.call('INCRBY', KEYS[4], #ARGV / 2)
+    """, Long.class);
+
+    // KEYS = held, exp, events, ver / ARGV = now, eventId, (offset, seatId)...
+    // → 여전히 만료 상태인 hold 만 정리하고 {seatId, version, seatId, version, ...} 반환 (여러 pod 가 동시에 돌아도 좌석당 1회)
+    //   인덱스가 비면 sweeper 순회 대상에서 제외
+    private static final DefaultRedisScript<List> SWEEP_SCRIPT = new DefaultRedisScript<>("""
+        local now = tonumber(ARGV[1])
+        local removed = {}
+        for i = 3, #ARGV, 2 do
+          local exp = redis.call('ZSCORE', KEYS[2], ARGV[i + 1])
+          if exp and tonumber(exp) <= now then
+            redis.call('ZREM', KEYS[2], ARGV[i + 1])
+            redis.call('SETBIT', KEYS[1], tonumber(ARGV[i]), 0)
+            removed[#removed + 1] = ARGV[i + 1]
+            removed[#removed + 1] = redis.call('INCR', KEYS[4])
+          end
+        end
+        if redis.call('ZCARD', KEYS[2]) == 0 then redis.call('SREM', KEYS[3], ARGV[2]) end
+        return removed
+    """, List.class);
+
+    // KEYS = sold, held, exp / ARGV = now → {soldBitmap, heldBitmap, {만료된 seatId...}}
+    private static final byte[] READ_LUA = """
+        return {
+          redis.call('GET', KEYS[1]) or '',
+          redis.call('GET', KEYS[2]) or '',
+          redis.call('ZRANGEBYSCORE', KEYS[3], '-inf', ARGV[1])
+        }
+    """.getBytes(StandardCharsets.UTF_8);
+
+    /** lastVersion: 성공 시 마지막 좌석의 버전 (좌석 i(0-base) 버전 = versionOf(i, n)) */
+    public record HoldOutcome(int code, int index, long lastVersion) {
+        public static final int SOLD = -1;
+        public static final int HELD = 0;
+        public static final int OK = 1;
+
+        public boolean success() { return code == OK; }
+
+        public long versionOf(int i, int n) { return lastVersion - n + 1 + i; }
+    }
+
+    /** expiresAtMs < 0 이면 hold 없음/만료 */
+    public record ExtendOutcome(long expiresAtMs, long version) {
+        public boolean success() { return expiresAtMs >= 0; }
+    }
+
+    /** version > 0 이면 HELD → AVAILABLE 전환이 일어남 (released=false 여도 만료 hold 정리로 전환될 수 있음) */
+    public record ReleaseOutcome(boolean released, long version) {}
+
+    /** N좌석 원자적 선점. index 는 충돌 좌석의 0-base 위치 */
+    public HoldOutcome hold(long eventId, List<Long> seatIds, long expiresAtMs) {
+        SeatLayout layout = layoutCache.get(eventId);
+        List<String> args = new ArrayList<>(seatIds.size() * 2 + 3);
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add(String.valueOf(expiresAtMs));
+        args.add(String.valueOf(eventId));
+        for (Long seatId : seatIds) {
+            args.add(String.valueOf(layout.offsetOf(seatId)));
+            args.add(String.valueOf(seatId));
+        }
+        List<?> ret = redis.execute(HOLD_SCRIPT,
+                List.of(soldKey(eventId), heldKey(eventId), holdIndexKey(eventId), HOLD_EVENTS_KEY, versionKey(eventId)),
+                args.toArray());
+        if (ret == null || ret.size() < 2) return new HoldOutcome(HoldOutcome.HELD, 0, 0L);
+        int code = ((Number) ret.get(0)).intValue();
+        long lastVersion = code == HoldOutcome.OK ? ((Number) ret.get(2)).longValue() : 0L;
+        return new HoldOutcome(code, Math.max(0, ((Number) ret.get(1)).intValue() - 1), lastVersion);
+    }
+
+    public ExtendOutcome extend(long eventId, long seatId, long addMs) {
+        List<?> ret = redis.execute(EXTEND_SCRIPT, List.of(holdIndexKey(eventId), versionKey(eventId)),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(addMs), String.valueOf(seatId));
+        if (ret == null || ret.size() < 2) return new ExtendOutcome(-1L, 0L);
+        return new ExtendOutcome(((Number) ret.get(0)).longValue(), ((Number) ret.get(1)).longValue());
+    }
+
+    public ReleaseOutcome release(long eventId, long seatId) {
+        int off = layoutCache.get(eventId).offsetOf(seatId);
+        List<?> ret = redis.execute(RELEASE_SCRIPT, List.of(heldKey(eventId), holdIndexKey(eventId), versionKey(eventId)),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(off), String.valueOf(seatId));
+        if (ret == null || ret.size() < 2) return new ReleaseOutcome(false, 0L);
+        return new ReleaseOutcome(((Number) ret.get(0)).longValue() == 1L, ((Number) ret.get(1)).longValue());
+    }
+
+    /**
+     * N좌석 SOLD 처리를 EVAL 1회로 (DB 에서 확정된 좌석만 넘길 것)
+     * @return 마지막 좌석의 버전 (순서대로 lastVersion - n + 1 .. lastVersion), 빈 목록이면 0
+     */
+    public long markSoldBatch(long eventId, Collection<Long> seatIds) {
+        if (seatIds.isEmpty()) return 0L;
+        SeatLayout layout = layoutCache.get(eventId);
+        List<String> args = new ArrayList<>(seatIds.size() * 2);
+        for (Long seatId : seatIds) {
+            args.add(String.valueOf(layout.offsetOf(seatId)));
+            args.add(String.valueOf(seatId));
+        }
+        Long v = redis.execute(SOLD_BATCH_SCRIPT,
+                List.of(soldKey(eventId), heldKey(eventId), holdIndexKey(eventId), versionKey(eventId)),
+                args.toArray());
+        return v == null ? 0L : v;
+    }
+
+    public boolean isHeld(long eventId, long seatId) {
+        Double exp = redis.opsForZSet().score(holdIndexKey(eventId), String.valueOf(seatId));
+        return exp != null && exp > System.currentTimeMillis();
+    }
+
+    /** hold 가 남아있는 이벤트 목록 */
+    public Set<Long> eventsWithHolds() {
+        Set<String> members = redis.opsForSet().members(HOLD_EVENTS_KEY);
+        Set<Long> ids = new HashSet<>();
+        if (members == null) return ids;
+        for (String m : members) {
+            try { ids.add(Long.parseLong(m)); } catch (NumberFormatException ignore) {}
+        }
+        return ids;
+    }
+
+    /**
+     * 만료된 hold 를 최대 limit 개 정리 (HELD 비트 OFF + 인덱스 제거).
+     * @return 이번 호출에서 실제로 정리된 seatId → 변경 버전 (→ AVAILABLE 알림 대상)
+     */
+    public Map<Long, Long> sweepExpired(long eventId, int limit) {
+        long now = System.currentTimeMillis();
+        Set<String> expired = redis.opsForZSet().rangeByScore(holdIndexKey(eventId), Double.NEGATIVE_INFINITY, now, 0, limit);
+
+        SeatLayout layout = layoutCache.get(eventId);
+        List<String> args = new ArrayList<>((expired == null ? 0 : expired.size()) * 2 + 2);
+        args.add(String.valueOf(now));
+        args.add(String.valueOf(eventId));
+        if (expired != null) {
+            for (String member : expired) {
+                Integer off;
+                try { off = layout.offsets().get(Long.parseLong(member)); } catch (NumberFormatException e) { off = null; }
+                if (off == null) {
+                    redis.opsForZSet().remove(holdIndexKey(eventId), member); // 좌석 배치에 없는 쓰레기 멤버
+                    continue;
+                }
+                args.add(String.valueOf(off));
+                args.add(member);
+            }
+        }
+
+        List<?> removed = redis.execute(SWEEP_SCRIPT,
+                List.of(heldKey(eventId), holdIndexKey(eventId), HOLD_EVENTS_KEY, versionKey(eventId)), args.toArray());
+        Map<Long, Long> versions = new LinkedHashMap<>();
+        if (removed != null) {
+            for (int i = 0; i + 1 < removed.size(); i += 2) {
+                versions.put(Long.parseLong(String.valueOf(removed.get(i))), ((Number) removed.get(i + 1)).longValue());
+            }
+        }
+        return versions;
+    }
+
+    /** 이벤트 전체 상태를 1 RTT 로 조회 */
+    public EventState read(long eventId) {
+        byte[][] keysAndArgs = {
+                soldKey(eventId).getBytes(StandardCharsets.UTF_8),
+                heldKey(eventId).getBytes(StandardCharsets.UTF_8),
+                holdIndexKey(eventId).getBytes(StandardCharsets.UTF_8),
+                String.valueOf(System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8)
+        };
+        List<Object> ret = redis.execute((RedisCallback<List<Object>>) conn ->
+                conn.scriptingCommands().eval(READ_LUA, ReturnType.MULTI, 3, keysAndArgs));
+
+        byte[] sold = new byte[0];
+        byte[] held = new byte[0];
+        Set<Long> expired = new HashSet<>();
+        if (ret != null && ret.size() == 3) {
+            sold = (byte[]) ret.get(0);
+            held = (byte[]) ret.get(1);
+            for (Object member : (List<?>) ret.get(2)) {
+                try {
+                    expired.add(Long.parseLong(new String((byte[]) member, StandardCharsets.UTF_8)));
+                } catch (NumberFormatException ignore) {}
+            }
+        }
+        return new EventState(sold, held, expired);
+    }
+
+    public record EventState(byte[] sold, byte[] held, Set<Long> expiredSeatIds) {
+
+        public boolean isSold(int offset) { return bit(sold, offset); }
+
+        /** HELD 비트가 켜져 있고 만료 인덱스상 아직 살아있는 hold */
+        public boolean isHeld(int offset, long seatId) {
+            return bit(held, offset) && !expiredSeatIds.contains(seatId);
+        }
+
+        // Redis 비트맵은 byte 내 MSB 가 offset 0
+        private static boolean bit(byte[] bitmap, int offset) {
+            int idx = offset >>> 3;
+            return idx < bitmap.length && (bitmap[idx] & (0x80 >>> (offset & 7))) != 0;
+        }
+    }
+}
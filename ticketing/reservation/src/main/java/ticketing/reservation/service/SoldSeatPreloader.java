@@ -0,0 +1,130 @@
+package ticketing.reservation.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 기동 시 DB 의 SOLD 좌석을 Redis SOLD 비트맵으로 동기화.
+ *  - JDBC 스트리밍 커서로 한 행씩 읽어 전체 결과를 힙에 올리지 않음
+ *  - SETBIT 를 batchSize 단위로 파이프라이닝 (좌석당 RTT 1회 → 배치당 1회)
+ *  - KEYS 삭제 없이 덮어쓰기만 함: SOLD 는 단조 증가(리셋은 AdminReset 이 키를 직접 삭제)라 기존 비트와 OR 해도 안전
+ *  - 백그라운드로 돌고, 끝날 때까지 readiness 그룹에서 OUT_OF_SERVICE → 트래픽은 완료 후 유입
+ *  - 실패하면 지수 backoff 로 성공할 때까지 처음부터 다시 (SETBIT 는 멱등) — 일시 장애로 pod 가 영구 unready 되지 않게
+ */
+@Component
+@Slf4j
+public class SoldSeatPreloader implements HealthIndicator {
+
+    private final JdbcTemplate streamingJdbc;
+    private final StringRedisTemplate redis;
+    private final SeatLayoutCache layoutCache;
+    private final int batchSize;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+
+    private volatile boolean done = false;
+    private volatile String failure;
+    private volatile long loaded = 0;
+    private volatile int attempts = 0;
+
+    public SoldSeatPreloader(DataSource dataSource,
+                             StringRedisTemplate redis,
+                             SeatLayoutCache layoutCache,
+                             @Value("${reservation.preload.batch-size:1000}") int batchSize,
+                             @Value("${reservation.preload.retry-base-ms:1000}") long retryBaseMs,
+                             @Value("${reservation.preload.retry-max-ms:30000}") long retryMaxMs) {
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(Integer.MIN_VALUE); // MySQL Connector/J: row-by-row 스트리밍
+        this.redis = redis;
+        this.layoutCache = layoutCache;
+        this.batchSize = batchSize;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startPreload() {
+        Thread t = new Thread(this::preloadUntilDone, "sold-seat-preload");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    void preloadUntilDone() {
+        long backoff = retryBaseMs;
+        while (!preload()) {
+            log.warn("[PRELOAD] retrying SOLD seat preload in {}ms attempt={}", backoff, attempts);
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = Math.min(backoff * 2, retryMaxMs);
+        }
+    }
+
+    /** @return 성공 여부. 시도마다 이전 실패를 지우고 처음부터 다시 읽음 */
+    boolean preload() {
+        attempts++;
+        failure = null;
+        loaded = 0;
+        long started = System.currentTimeMillis();
+        List<long[]> batch = new ArrayList<>(batchSize); // {eventId, offset}
+        try {
+            streamingJdbc.query("SELECT event_id, id FROM seats WHERE status = 'SOLD'", rs -> {
+                long eventId = rs.getLong(1);
+                long seatId = rs.getLong(2);
+                Integer offset = layoutCache.get(eventId).offsets().get(seatId);
+                if (offset == null) return;
+                batch.add(new long[]{eventId, offset});
+                if (batch.size() >= batchSize) flush(batch);
+            });
+            flush(batch);
+            done = true;
+            log.info("[PRELOAD] {} SOLD seats preloaded into Redis in {}ms attempt={}",
+                    loaded, System.currentTimeMillis() - started, attempts);
+            return true;
+        } catch (Exception e) {
+            failure = e.getMessage();
+            log.error("[PRELOAD] SOLD seat preload failed after {} seats attempt={} error={}",
+                    loaded, attempts, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private void flush(List<long[]> batch) {
+        if (batch.isEmpty()) return;
+        redis.executePipelined((RedisCallback<Object>) conn -> {
+            for (long[] b : batch) {
+                conn.stringCommands().setBit(
+                        SeatStateStore.soldKey(b[0]).getBytes(StandardCharsets.UTF_8), b[1], true);
+            }
+            return null;
+        });
+        loaded += batch.size();
+        batch.clear();
+    }
+
+    @Override
+    public Health health() {
+        if (failure != null) {
+            return Health.down().withDetail("error", failure).withDetail("loaded", loaded)
+                    .withDetail("attempts", attempts).build();
+        }
+        if (!done) return Health.outOfService().withDetail("loaded", loaded).withDetail("attempts", attempts).build();
+        return Health.up().withDetail("loaded", loaded).build();
+    }
+}
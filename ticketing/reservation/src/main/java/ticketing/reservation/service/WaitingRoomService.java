@@ -0,0 +1,225 @@
+package ticketing.reservation.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ticketing.common.ApiException;
+import ticketing.common.Errors;
+import ticketing.reservation.dto.QueueDtos.QueueStatusResponse;
+import ticketing.reservation.metrics.ReservationMetrics;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 가상 대기열 (Redis)
+ *  - queue:wait:{eventId}      대기 ZSET (member = token, score = 진입 순번), ZADD NX → 한 token 은 한 자리
+ *  - queue:session:{eventId}   세션(X-Caller-Id) → token HASH: 같은 세션이 다시 진입하면 기존 자리/입장권 그대로 (중복 진입 없음)
+ *  - queue:seen:{eventId}      대기자 마지막 폴링 시각 ZSET: idle-timeout 동안 폴링 없는 대기자는 입장 차례에 버림 (이탈자 정리)
+ *  - queue:admitted:{eventId}  입장 ZSET (member = token, score = 입장권 만료 epoch ms)
+ *  - queue:seq:{eventId}       진입 순번 INCR
+ *  - queue:tick:{eventId}      입장 처리 락 (여러 pod 중 한 곳만 tick 마다 입장 처리)
+ *  - queue:events              대기열이 열린 eventId SET (대기/입장자가 모두 없으면 제거)
+ * 이벤트별 키는 key-ttl 동안 진입/입장이 없으면 만료 → 판매가 끝난 대기열이 Redis 에 남지 않음.
+ * tick 마다 min(admitPerSecond 비율, max-active - 아직 유효한 입장권 수) 명만 입장 → hold API 는 입장권 ZSCORE 1회로 검증.
+ */
+@Service
+@Slf4j
+public class WaitingRoomService {
+
+    static final String EVENTS_KEY = "queue:events";
+
+    private final StringRedisTemplate redis;
+    private final ReservationMetrics metrics;
+    private final boolean enforce;
+    private final int admitPerSecond;
+    private final int maxActive;
+    private final long admissionTtlMs;
+    private final long idleTimeoutMs;
+    private final long keyTtlMs;
+    private final long tickMs;
+
+    public WaitingRoomService(StringRedisTemplate redis,
+                              ReservationMetrics metrics,
+                              @Value("${reservation.queue.enforce:false}") boolean enforce,
+                              @Value("${reservation.queue.admit-per-second:200}") int admitPerSecond,
+                              @Value("${reservation.queue.max-active:2000}") int maxActive,
+                              @Value("${reservation.queue.admission-ttl-seconds:300}") long admissionTtlSeconds,
+                              @Value("${reservation.queue.idle-timeout-seconds:60}") long idleTimeoutSeconds,
+                              @Value("${reservation.queue.key-ttl-seconds:3600}") long keyTtlSeconds,
+                              @Value("${reservation.queue.tick-ms:1000}") long tickMs) {
+        this.redis = redis;
+        this.metrics = metrics;
+        this.enforce = enforce;
+        this.admitPerSecond = admitPerSecond;
+        this.maxActive = maxActive;
+        this.admissionTtlMs = admissionTtlSeconds * 1000;
+        this.idleTimeoutMs = idleTimeoutSeconds * 1000;
+        this.keyTtlMs = keyTtlSeconds * 1000;
+        this.tickMs = tickMs;
+    }
+
+    private static String waitKey(long eventId) { return "queue:wait:" + eventId; }
+    private static String sessionKey(long eventId) { return "queue:session:" + eventId; }
+    private static String seenKey(long eventId) { return "queue:seen:" + eventId; }
+    private static String admittedKey(long eventId) { return "queue:admitted:" + eventId; }
+    private static String seqKey(long eventId) { return "queue:seq:" + eventId; }
+    private static String tickKey(long eventId) { return "queue:tick:" + eventId; }
+
+    // KEYS = seq, wait, events, session, admitted, seen / ARGV = newToken, eventId, sessionId('' = 없음), now, keyTtlMs
+    // → {token, 0-base 대기 순위} / 이미 입장한 세션이면 {token, -1, 입장권 만료 epoch ms}
+    private static final DefaultRedisScript<List> ENQUEUE_SCRIPT = new DefaultRedisScript<>("""
+        local token = ARGV[1]
+        local now = tonumber(ARGV[4])
+        if ARGV[3] ~= '' then
+          local prev = redis.call('HGET', KEYS[4], ARGV[3])
+          if prev then
+            local exp = redis.call('ZSCORE', KEYS[5], prev)
+            if exp and tonumber(exp) > now then return {prev, -1, tonumber(exp)} end
+            if redis.call('ZSCORE', KEYS[2], prev) then token = prev end
+          end
+          redis.call('HSET', KEYS[4], ARGV[3], token)
+          redis.call('PEXPIRE', KEYS[4], ARGV[5])
+        end
+        if not redis.call('ZSCORE', KEYS[2], token) then
+          redis.call('ZADD', KEYS[2], 'NX', redis.call('INCR', KEYS[1]), token)
+        end
+        redis.call('ZADD', KEYS[6], now, token)
+        redis.call('SADD', KEYS[3], ARGV[2])
+        redis.call('PEXPIRE', KEYS[1], ARGV[5])
+        redis.call('PEXPIRE', KEYS[2], ARGV[5])
+        redis.call('PEXPIRE', KEYS[6], ARGV[5])
+        return {token, redis.call('ZRANK', KEYS[2], token)}
+    """, List.class);
+
+    // KEYS = admitted, wait, seen / ARGV = token, now → {1, 만료 epoch ms} 입장 / {0, 순위} 대기 (폴링 시각 갱신) / {-1, 0} 모름
+    private static final DefaultRedisScript<List> STATUS_SCRIPT = new DefaultRedisScript<>("""
+        local exp = redis.call('ZSCORE', KEYS[1], ARGV[1])
+        if exp and tonumber(exp) > tonumber(ARGV[2]) then return {1, tonumber(exp)} end
+        local rank = redis.call('ZRANK', KEYS[2], ARGV[1])
+        if not rank then return {-1, 0} end
+        redis.call('ZADD', KEYS[3], 'XX', ARGV[2], ARGV[1])
+        return {0, rank}
+    """, List.class);
+
+    // KEYS = wait, admitted, tick, seen, events
+    // ARGV = now, count, expireAt, tickMs, maxActive, idleBefore, eventId, keyTtlMs
+    // → {입장시킨 인원, 버린 이탈자 수} (-1 이면 다른 pod 가 이번 tick 처리)
+    //   유효한 입장권이 max-active 에 닿으면 이번 tick 은 입장 없음, 이탈자 건너뛰기는 tick 당 count * 4 건까지
+    private static final DefaultRedisScript<List> ADMIT_SCRIPT = new DefaultRedisScript<>("""
+        if not redis.call('SET', KEYS[3], '1', 'NX', 'PX', ARGV[4]) then return {-1, 0} end
+        redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[1])
+        local room = math.min(tonumber(ARGV[2]), tonumber(ARGV[5]) - redis.call('ZCARD', KEYS[2]))
+        local idleBefore = tonumber(ARGV[6])
+        local admitted, dropped, budget = 0, 0, tonumber(ARGV[2]) * 4
+        while admitted < room and budget > 0 do
+          local popped = redis.call('ZPOPMIN', KEYS[1], 1)
+          if #popped == 0 then break end
+          local token = popped[1]
+          local seen = redis.call('ZSCORE', KEYS[4], token)
+          redis.call('ZREM', KEYS[4], token)
+          if seen and tonumber(seen) >= idleBefore then
+            redis.call('ZADD', KEYS[2], ARGV[3], token)
+            admitted = admitted + 1
+          else
+            dropped = dropped + 1
+          end
+          budget = budget - 1
+        end
+        if admitted > 0 then redis.call('PEXPIRE', KEYS[2], ARGV[8]) end
+        if redis.call('ZCARD', KEYS[1]) == 0 and redis.call('ZCARD', KEYS[2]) == 0 then
+          redis.call('SREM', KEYS[5], ARGV[7])
+        end
+        return {admitted, dropped}
+    """, List.class);
+
+    /** sessionId 가 있으면 같은 세션의 재진입은 기존 token/순번을 그대로 돌려줌 */
+    public QueueStatusResponse enqueue(long eventId, String sessionId) {
+        long now = System.currentTimeMillis();
+        List<?> ret = redis.execute(ENQUEUE_SCRIPT,
+                List.of(seqKey(eventId), waitKey(eventId), EVENTS_KEY, sessionKey(eventId),
+                        admittedKey(eventId), seenKey(eventId)),
+                UUID.randomUUID().toString(), String.valueOf(eventId), sessionId == null ? "" : sessionId,
+                String.valueOf(now), String.valueOf(keyTtlMs));
+        if (ret == null || ret.size() < 2) {
+            throw new IllegalStateException("queue enqueue script returned no result");
+        }
+        String token = String.valueOf(ret.get(0));
+        long rank = ((Number) ret.get(1)).longValue();
+        if (rank < 0) {
+            long exp = ((Number) ret.get(2)).longValue();
+            log.info("[QUEUE-ENTER] eventId={} token={} already admitted", eventId, token);
+            return new QueueStatusResponse(eventId, token, 0, 0, true, Instant.ofEpochMilli(exp));
+        }
+        long position = rank + 1;
+        metrics.incQueueEnqueued();
+        log.info("[QUEUE-ENTER] eventId={} token={} position={}", eventId, token, position);
+        return new QueueStatusResponse(eventId, token, position, estimateWait(position), false, null);
+    }
+
+    /** 폴링 = 대기 중이라는 신호 (idle-timeout 안에 다시 폴링해야 자리 유지) */
+    public QueueStatusResponse status(long eventId, String token) {
+        List<?> ret = redis.execute(STATUS_SCRIPT,
+                List.of(admittedKey(eventId), waitKey(eventId), seenKey(eventId)),
+                token, String.valueOf(System.currentTimeMillis()));
+        long code = ret == null || ret.size() < 2 ? -1 : ((Number) ret.get(0)).longValue();
+        if (code == 1) {
+            return new QueueStatusResponse(eventId, token, 0, 0, true,
+                    Instant.ofEpochMilli(((Number) ret.get(1)).longValue()));
+        }
+        if (code != 0) {
+            throw new ApiException(Errors.VALIDATION_FAILED, "Unknown or expired queue token");
+        }
+        long position = ((Number) ret.get(1)).longValue() + 1;
+        return new QueueStatusResponse(eventId, token, position, estimateWait(position), false, null);
+    }
+
+    /** hold API 진입 검증: 대기열 강제 시 유효한 입장권(ZSCORE 1회) 필요 */
+    public void requireAdmitted(long eventId, String token) {
+        if (!enforce) return;
+        Double exp = token == null ? null : redis.opsForZSet().score(admittedKey(eventId), token);
+        if (exp == null || exp <= System.currentTimeMillis()) {
+            metrics.incQueueRejected();
+            throw new ApiException(Errors.QUEUE_NOT_ADMITTED, "Not admitted yet. Join the waiting room first");
+        }
+    }
+
+    // 대기열이 열린 이벤트마다 tick 당 admitPerSecond * tick 비율만큼, 유효 입장권이 max-active 를 넘지 않게 입장
+    @Scheduled(fixedDelayString = "${reservation.queue.tick-ms:1000}")
+    public void admit() {
+        Set<String> events = redis.opsForSet().members(EVENTS_KEY);
+        if (events == null || events.isEmpty()) return;
+
+        long now = System.currentTimeMillis();
+        long count = Math.max(1, admitPerSecond * tickMs / 1000);
+        for (String ev : events) {
+            try {
+                long eventId = Long.parseLong(ev);
+                List<?> ret = redis.execute(ADMIT_SCRIPT,
+                        List.of(waitKey(eventId), admittedKey(eventId), tickKey(eventId), seenKey(eventId), EVENTS_KEY),
+                        String.valueOf(now), String.valueOf(count), String.valueOf(now + admissionTtlMs),
+                        String.valueOf(tickMs), String.valueOf(maxActive), String.valueOf(now - idleTimeoutMs),
+                        String.valueOf(eventId), String.valueOf(keyTtlMs));
+                if (ret == null || ret.size() < 2) continue;
+                long admitted = ((Number) ret.get(0)).longValue();
+                long dropped = ((Number) ret.get(1)).longValue();
+                if (admitted > 0) metrics.incQueueAdmitted((int) admitted);
+                if (dropped > 0) metrics.incQueueAbandoned((int) dropped);
+                if (admitted > 0 || dropped > 0) {
+                    log.info("[QUEUE-ADMIT] eventId={} admitted={} abandoned={}", eventId, admitted, dropped);
+                }
+            } catch (Exception e) {
+                log.warn("[QUEUE-ADMIT] failed eventId={} error={}", ev, e.getMessage());
+            }
+        }
+    }
+
+    private long estimateWait(long position) {
+        return admitPerSecond <= 0 ? 0 : (position + admitPerSecond - 1) / admitPerSecond;
+    }
+}
@@ -0,0 +1,103 @@
+package ticketing.reservation.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ticketing.reservation.client.CatalogNotifier;
+import ticketing.reservation.metrics.ReservationMetrics;
+import ticketing.reservation.repository.SeatRepository;
+import ticketing.reservation.service.ReservationService.ConfirmResult;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/** 결제 확정: DB 에서 이 주문 소유로 SOLD 된 좌석만 Redis 일괄 SOLD + 알림, 그것도 커밋 후에만 */
+class ReservationServiceTest {
+
+    private static final long EVENT_ID = 7L;
+    private static final long ORDER_ID = 42L;
+
+    private final SeatStateStore seatStateStore = mock(SeatStateStore.class);
+    private final SeatRepository seatRepository = mock(SeatRepository.class);
+    private final CatalogNotifier catalogNotifier = mock(CatalogNotifier.class);
+    private final SeatAllocator seatAllocator = mock(SeatAllocator.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ReservationService service = new ReservationService(seatStateStore, seatRepository,
+            new ReservationMetrics(registry), ObservationRegistry.NOOP, catalogNotifier, seatAllocator);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void 이_주문이_소유한_좌석만_확정하고_나머지는_실패로_분리() {
+        when(seatRepository.findSoldByOrder(EVENT_ID, ORDER_ID, List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+        when(seatStateStore.markSoldBatch(EVENT_ID, List.of(1L, 3L))).thenReturn(10L);
+
+        ConfirmResult ret = service.markSeatsSold(EVENT_ID, ORDER_ID, List.of(1L, 2L, 3L), "trace");
+
+        assertThat(ret.confirmed()).containsExactly(1L, 3L);
+        assertThat(ret.failed()).containsExactly(2L);
+        verify(seatRepository).markSoldBatch(EVENT_ID, ORDER_ID, List.of(1L, 2L, 3L));
+        // 일괄 스크립트의 lastVersion 에서 좌석별 버전 역산
+        verify(catalogNotifier).notifySeatChange(EVENT_ID, 1L, "SOLD", 9L, "trace");
+        verify(catalogNotifier).notifySeatChange(EVENT_ID, 3L, "SOLD", 10L, "trace");
+        verifyNoMoreInteractions(catalogNotifier); // 좌석 2 는 알림 없음
+        assertThat(registry.get("reservation_confirm_success_total").counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("reservation_confirm_failed_total").counter().count()).isEqualTo(1.0);
+        verify(seatAllocator).markTaken(EVENT_ID, List.of(1L, 3L));
+    }
+
+    @Test
+    void 트랜잭션_안에서는_커밋_후에야_Redis_와_알림() {
+        when(seatRepository.findSoldByOrder(EVENT_ID, ORDER_ID, List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(seatStateStore.markSoldBatch(EVENT_ID, List.of(1L, 2L))).thenReturn(2L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.markSeatsSold(EVENT_ID, ORDER_ID, List.of(1L, 2L), "trace");
+
+        verifyNoInteractions(seatStateStore, catalogNotifier, seatAllocator);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(seatStateStore).markSoldBatch(EVENT_ID, List.of(1L, 2L));
+        verify(catalogNotifier).notifySeatChange(EVENT_ID, 1L, "SOLD", 1L, "trace");
+        verify(catalogNotifier).notifySeatChange(EVENT_ID, 2L, "SOLD", 2L, "trace");
+    }
+
+    @Test
+    void 중복과_null_은_걸러서_한_번만_처리() {
+        when(seatRepository.findSoldByOrder(EVENT_ID, ORDER_ID, List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+
+        ConfirmResult ret = service.markSeatsSold(EVENT_ID, ORDER_ID, Arrays.asList(1L, null, 2L, 1L), "trace");
+
+        assertThat(ret.confirmed()).containsExactly(1L, 2L);
+        verify(seatRepository).markSoldBatch(EVENT_ID, ORDER_ID, List.of(1L, 2L));
+    }
+
+    @Test
+    void 좌석이_없으면_DB_도_Redis_도_건드리지_않음() {
+        assertThat(service.markSeatsSold(EVENT_ID, ORDER_ID, List.of(), "trace").confirmed()).isEmpty();
+        assertThat(service.markSeatsSold(EVENT_ID, ORDER_ID, null, "trace").failed()).isEmpty();
+
+        verifyNoInteractions(seatRepository, seatStateStore, catalogNotifier);
+        verify(seatAllocator, never()).markTaken(anyLong(), anyCollection());
+    }
+}
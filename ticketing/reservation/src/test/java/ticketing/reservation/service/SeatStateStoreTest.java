@@ -0,0 +1,238 @@
+package ticketing.reservation.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import ticketing.reservation.service.SeatLayoutCache.SeatLayout;
+import ticketing.reservation.service.SeatStateStore.EventState;
+import ticketing.reservation.service.SeatStateStore.ExtendOutcome;
+import ticketing.reservation.service.SeatStateStore.HoldOutcome;
+import ticketing.reservation.service.SeatStateStore.ReleaseOutcome;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 좌석 상태 Lua 스크립트 (실제 Redis): 다좌석 원자 선점, 비트맵 상태, 일괄 SOLD, 해제/연장/만료 정리, 스크립트 안의 버전 증가.
+ * Docker 가 없으면 건너뜀
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SeatStateStoreTest {
+
+    private static final long EVENT_ID = 1L;
+    // 1행 6석: seatId 101..106 → offset 0..5
+    private static final SeatLayout LAYOUT = layout(101, 102, 103, 104, 105, 106);
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redis;
+    private SeatStateStore store;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redis = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.execute((RedisCallback<Object>) conn -> {
+            conn.serverCommands().flushAll();
+            return null;
+        });
+        SeatLayoutCache layoutCache = mock(SeatLayoutCache.class);
+        when(layoutCache.get(EVENT_ID)).thenReturn(LAYOUT);
+        store = new SeatStateStore(redis, layoutCache);
+    }
+
+    private static SeatLayout layout(long... seatIds) {
+        int n = seatIds.length;
+        int[] rows = new int[n];
+        int[] cols = new int[n];
+        int[] prices = new int[n];
+        Map<Long, Integer> offsets = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            rows[i] = 1;
+            cols[i] = i + 1;
+            prices[i] = 50000;
+            offsets.put(seatIds[i], i);
+        }
+        return new SeatLayout(seatIds, rows, cols, prices, offsets);
+    }
+
+    private static long inFuture() {
+        return System.currentTimeMillis() + 60_000;
+    }
+
+    private static long inPast() {
+        return System.currentTimeMillis() - 1_000;
+    }
+
+    private long version() {
+        String v = redis.opsForValue().get(SeatStateStore.versionKey(EVENT_ID));
+        return v == null ? 0 : Long.parseLong(v);
+    }
+
+    // ===== hold (user-001 / 002) =====
+
+    @Test
+    void 여러_좌석을_한_번에_선점하고_좌석마다_버전을_받음() {
+        HoldOutcome ret = store.hold(EVENT_ID, List.of(101L, 102L, 103L), inFuture());
+
+        assertThat(ret.success()).isTrue();
+        assertThat(ret.lastVersion()).isEqualTo(3);
+        assertThat(List.of(ret.versionOf(0, 3), ret.versionOf(1, 3), ret.versionOf(2, 3))).containsExactly(1L, 2L, 3L);
+
+        EventState state = store.read(EVENT_ID);
+        assertThat(state.isHeld(0, 101L)).isTrue();
+        assertThat(state.isHeld(2, 103L)).isTrue();
+        assertThat(state.isHeld(3, 104L)).isFalse();
+        assertThat(store.isHeld(EVENT_ID, 102L)).isTrue();
+        assertThat(store.eventsWithHolds()).containsExactly(EVENT_ID);
+    }
+
+    @Test
+    void 하나라도_이미_선점됐으면_아무_좌석도_잡지_않고_충돌_위치를_반환() {
+        store.hold(EVENT_ID, List.of(102L), inFuture());
+        long before = version();
+
+        HoldOutcome ret = store.hold(EVENT_ID, List.of(101L, 102L, 103L), inFuture());
+
+        assertThat(ret.code()).isEqualTo(HoldOutcome.HELD);
+        assertThat(ret.index()).isEqualTo(1);
+        assertThat(store.isHeld(EVENT_ID, 101L)).isFalse();
+        assertThat(store.isHeld(EVENT_ID, 103L)).isFalse();
+        assertThat(version()).isEqualTo(before); // 실패한 선점은 버전을 올리지 않음
+    }
+
+    @Test
+    void 만료된_hold_좌석은_다시_선점_가능() {
+        store.hold(EVENT_ID, List.of(101L), inPast());
+
+        assertThat(store.isHeld(EVENT_ID, 101L)).isFalse();
+        assertThat(store.read(EVENT_ID).isHeld(0, 101L)).isFalse(); // HELD 비트는 남아 있어도 만료 인덱스로 판정
+        assertThat(store.hold(EVENT_ID, List.of(101L), inFuture()).success()).isTrue();
+    }
+
+    @Test
+    void SOLD_좌석이_있으면_SOLD_와_위치를_반환() {
+        store.markSoldBatch(EVENT_ID, List.of(103L));
+
+        HoldOutcome ret = store.hold(EVENT_ID, List.of(102L, 103L), inFuture());
+
+        assertThat(ret.code()).isEqualTo(HoldOutcome.SOLD);
+        assertThat(ret.index()).isEqualTo(1);
+        assertThat(store.isHeld(EVENT_ID, 102L)).isFalse();
+    }
+
+    // ===== SOLD (user-006) =====
+
+    @Test
+    void 일괄_SOLD_는_비트를_켜고_hold_를_정리하며_좌석마다_연속_버전() {
+        store.hold(EVENT_ID, List.of(101L, 102L), inFuture()); // 버전 1, 2
+
+        long lastVersion = store.markSoldBatch(EVENT_ID, List.of(101L, 102L, 104L));
+
+        assertThat(lastVersion).isEqualTo(5); // 3, 4, 5
+        EventState state = store.read(EVENT_ID);
+        assertThat(state.isSold(0)).isTrue();
+        assertThat(state.isSold(1)).isTrue();
+        assertThat(state.isSold(2)).isFalse();
+        assertThat(state.isSold(3)).isTrue();
+        assertThat(state.isHeld(0, 101L)).isFalse();
+        assertThat(store.isHeld(EVENT_ID, 102L)).isFalse();
+    }
+
+    @Test
+    void 빈_목록_SOLD_는_Redis_를_건드리지_않음() {
+        assertThat(store.markSoldBatch(EVENT_ID, List.of())).isZero();
+        assertThat(version()).isZero();
+    }
+
+    // ===== release / extend / 만료 정리 =====
+
+    @Test
+    void 살아있는_hold_해제는_released_와_새_버전() {
+        store.hold(EVENT_ID, List.of(101L), inFuture());
+
+        ReleaseOutcome ret = store.release(EVENT_ID, 101L);
+
+        assertThat(ret.released()).isTrue();
+        assertThat(ret.version()).isEqualTo(2);
+        assertThat(store.read(EVENT_ID).isHeld(0, 101L)).isFalse();
+        assertThat(store.release(EVENT_ID, 101L)).isEqualTo(new ReleaseOutcome(false, 0L)); // 두 번째는 no-op
+    }
+
+    @Test
+    void 이미_만료된_hold_해제는_released_가_아니지만_AVAILABLE_전환_버전은_반환() {
+        store.hold(EVENT_ID, List.of(101L), inPast());
+
+        ReleaseOutcome ret = store.release(EVENT_ID, 101L);
+
+        assertThat(ret.released()).isFalse();
+        assertThat(ret.version()).isEqualTo(2);
+    }
+
+    @Test
+    void 연장은_살아있는_hold_만_만료를_늘리고_버전_증가() {
+        long expiresAt = inFuture();
+        store.hold(EVENT_ID, List.of(101L), expiresAt);
+
+        ExtendOutcome ret = store.extend(EVENT_ID, 101L, 30_000);
+
+        assertThat(ret.success()).isTrue();
+        assertThat(ret.expiresAtMs()).isEqualTo(expiresAt + 30_000);
+        assertThat(ret.version()).isEqualTo(2);
+        assertThat(store.extend(EVENT_ID, 102L, 30_000).success()).isFalse();
+
+        store.hold(EVENT_ID, List.of(103L), inPast());
+        assertThat(store.extend(EVENT_ID, 103L, 30_000).success()).isFalse();
+    }
+
+    @Test
+    void 만료_정리는_만료된_hold_만_좌석별_버전과_함께_반환() {
+        store.hold(EVENT_ID, List.of(101L, 102L), inPast());   // 버전 1, 2
+        store.hold(EVENT_ID, List.of(103L), inFuture());       // 버전 3
+
+        Map<Long, Long> swept = store.sweepExpired(EVENT_ID, 100);
+
+        assertThat(swept).containsOnlyKeys(101L, 102L);
+        assertThat(swept.values()).containsExactlyInAnyOrder(4L, 5L);
+        assertThat(store.isHeld(EVENT_ID, 103L)).isTrue();
+        assertThat(store.eventsWithHolds()).containsExactly(EVENT_ID); // 아직 살아있는 hold 가 있음
+        assertThat(store.sweepExpired(EVENT_ID, 100)).isEmpty();       // 두 번째 정리는 no-op
+    }
+
+    @Test
+    void hold_가_모두_정리되면_sweeper_순회_대상에서_제외() {
+        store.hold(EVENT_ID, List.of(101L), inPast());
+
+        store.sweepExpired(EVENT_ID, 100);
+
+        assertThat(store.eventsWithHolds()).isEmpty();
+        assertThat(store.read(EVENT_ID).isHeld(0, 101L)).isFalse();
+    }
+}